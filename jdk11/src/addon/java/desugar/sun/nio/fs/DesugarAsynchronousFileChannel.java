@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2021 Google LLC
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Google designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Google in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package desugar.sun.nio.fs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Linux implementation of {@link AsynchronousFileChannel} for desugar support.
+ *
+ * <p>Like sun.nio.ch.SimpleAsynchronousFileChannelImpl, each operation runs the blocking
+ * positional operation of a {@link FileChannel} on an executor: the one given when opening the
+ * channel, or otherwise an executor with a bounded number of daemon threads shared by all
+ * channels.
+ */
+public class DesugarAsynchronousFileChannel extends AsynchronousFileChannel {
+
+  private final FileChannel fileChannel;
+  private final ExecutorService executor;
+  private final boolean reading;
+  private final boolean writing;
+
+  public static DesugarAsynchronousFileChannel open(
+      Path path,
+      Set<? extends OpenOption> openOptions,
+      ExecutorService executor,
+      FileAttribute<?>... attrs)
+      throws IOException {
+    // Validations that resemble sun.nio.ch.SimpleAsynchronousFileChannelImpl#open.
+    if (openOptions.contains(StandardOpenOption.APPEND)) {
+      throw new UnsupportedOperationException("APPEND not allowed");
+    }
+    boolean reading = openOptions.contains(StandardOpenOption.READ);
+    boolean writing = openOptions.contains(StandardOpenOption.WRITE);
+    if (!reading && !writing) {
+      reading = true;
+    }
+    FileChannel fileChannel = DesugarFileChannel.openEmulatedFileChannel(path, openOptions, attrs);
+    return new DesugarAsynchronousFileChannel(
+        fileChannel,
+        executor == null ? DefaultExecutorHolder.DEFAULT_EXECUTOR : executor,
+        reading,
+        writing);
+  }
+
+  private DesugarAsynchronousFileChannel(
+      FileChannel fileChannel, ExecutorService executor, boolean reading, boolean writing) {
+    this.fileChannel = fileChannel;
+    this.executor = executor;
+    this.reading = reading;
+    this.writing = writing;
+  }
+
+  @Override
+  public long size() throws IOException {
+    return fileChannel.size();
+  }
+
+  @Override
+  public AsynchronousFileChannel truncate(long size) throws IOException {
+    if (size < 0) {
+      throw new IllegalArgumentException("Negative size");
+    }
+    if (!writing) {
+      throw new NonWritableChannelException();
+    }
+    fileChannel.truncate(size);
+    return this;
+  }
+
+  @Override
+  public void force(boolean metaData) throws IOException {
+    fileChannel.force(metaData);
+  }
+
+  @Override
+  public <A> void lock(
+      long position,
+      long size,
+      boolean shared,
+      A attachment,
+      CompletionHandler<FileLock, ? super A> handler) {
+    if (handler == null) {
+      throw new NullPointerException("'handler' is null");
+    }
+    submitLock(position, size, shared, attachment, handler);
+  }
+
+  @Override
+  public Future<FileLock> lock(long position, long size, boolean shared) {
+    return submitLock(position, size, shared, null, null);
+  }
+
+  private <A> Future<FileLock> submitLock(
+      long position,
+      long size,
+      boolean shared,
+      A attachment,
+      CompletionHandler<FileLock, ? super A> handler) {
+    checkLockMode(shared);
+    return submit(
+        () -> wrapLock(fileChannel.lock(position, size, shared)), attachment, handler);
+  }
+
+  @Override
+  public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+    checkLockMode(shared);
+    return wrapLock(fileChannel.tryLock(position, size, shared));
+  }
+
+  private void checkLockMode(boolean shared) {
+    if (shared && !reading) {
+      throw new NonReadableChannelException();
+    }
+    if (!shared && !writing) {
+      throw new NonWritableChannelException();
+    }
+  }
+
+  private FileLock wrapLock(FileLock lock) {
+    if (lock == null) {
+      return null;
+    }
+    return new DesugarAsynchronousFileLock(lock, this);
+  }
+
+  @Override
+  public <A> void read(
+      ByteBuffer dst,
+      long position,
+      A attachment,
+      CompletionHandler<Integer, ? super A> handler) {
+    if (handler == null) {
+      throw new NullPointerException("'handler' is null");
+    }
+    submitRead(dst, position, attachment, handler);
+  }
+
+  @Override
+  public Future<Integer> read(ByteBuffer dst, long position) {
+    return submitRead(dst, position, null, null);
+  }
+
+  private <A> Future<Integer> submitRead(
+      ByteBuffer dst, long position, A attachment, CompletionHandler<Integer, ? super A> handler) {
+    if (position < 0) {
+      throw new IllegalArgumentException("Negative position");
+    }
+    if (!reading) {
+      throw new NonReadableChannelException();
+    }
+    if (dst.isReadOnly()) {
+      throw new IllegalArgumentException("Read-only buffer");
+    }
+    return submit(() -> fileChannel.read(dst, position), attachment, handler);
+  }
+
+  @Override
+  public <A> void write(
+      ByteBuffer src,
+      long position,
+      A attachment,
+      CompletionHandler<Integer, ? super A> handler) {
+    if (handler == null) {
+      throw new NullPointerException("'handler' is null");
+    }
+    submitWrite(src, position, attachment, handler);
+  }
+
+  @Override
+  public Future<Integer> write(ByteBuffer src, long position) {
+    return submitWrite(src, position, null, null);
+  }
+
+  private <A> Future<Integer> submitWrite(
+      ByteBuffer src, long position, A attachment, CompletionHandler<Integer, ? super A> handler) {
+    if (position < 0) {
+      throw new IllegalArgumentException("Negative position");
+    }
+    if (!writing) {
+      throw new NonWritableChannelException();
+    }
+    return submit(() -> fileChannel.write(src, position), attachment, handler);
+  }
+
+  /**
+   * Runs the operation on the executor. Its outcome is available through the returned future and,
+   * if given, is also delivered to the completion handler.
+   */
+  private <V, A> Future<V> submit(
+      Callable<V> operation, A attachment, CompletionHandler<V, ? super A> handler) {
+    FutureTask<V> task =
+        new FutureTask<V>(operation) {
+          @Override
+          protected void done() {
+            if (handler == null || isCancelled()) {
+              return;
+            }
+            V result;
+            try {
+              result = get();
+            } catch (ExecutionException e) {
+              handler.failed(e.getCause(), attachment);
+              return;
+            } catch (InterruptedException e) {
+              // Not reached, the task is done.
+              handler.failed(e, attachment);
+              return;
+            }
+            handler.completed(result, attachment);
+          }
+        };
+    executor.execute(task);
+    return task;
+  }
+
+  @Override
+  public boolean isOpen() {
+    return fileChannel.isOpen();
+  }
+
+  @Override
+  public void close() throws IOException {
+    fileChannel.close();
+  }
+
+  /**
+   * The executor of channels opened without one, created on first use. Its threads are daemon
+   * threads that exit when idle, so that it needs no shutdown.
+   */
+  private static class DefaultExecutorHolder {
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    static final ExecutorService DEFAULT_EXECUTOR = createDefaultExecutor();
+
+    private static ExecutorService createDefaultExecutor() {
+      int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+      AtomicInteger threadCount = new AtomicInteger();
+      ThreadFactory threadFactory =
+          runnable -> {
+            Thread thread =
+                new Thread(
+                    runnable, "desugar-async-file-channel-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          };
+      ThreadPoolExecutor executor =
+          new ThreadPoolExecutor(
+              threads,
+              threads,
+              KEEP_ALIVE_SECONDS,
+              TimeUnit.SECONDS,
+              new LinkedBlockingQueue<>(),
+              threadFactory);
+      executor.allowCoreThreadTimeOut(true);
+      return executor;
+    }
+  }
+
+  /** A lock acquired through the underlying {@link FileChannel}, owned by this channel. */
+  static class DesugarAsynchronousFileLock extends FileLock {
+
+    private final FileLock delegate;
+
+    DesugarAsynchronousFileLock(FileLock delegate, AsynchronousFileChannel channel) {
+      super(channel, delegate.position(), delegate.size(), delegate.isShared());
+      this.delegate = delegate;
+    }
+
+    @Override
+    public boolean isValid() {
+      return delegate.isValid();
+    }
+
+    @Override
+    public void release() throws IOException {
+      delegate.release();
+    }
+  }
+}
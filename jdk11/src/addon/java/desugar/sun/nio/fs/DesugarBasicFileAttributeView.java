@@ -40,8 +40,24 @@ class DesugarBasicFileAttributeView extends DesugarAbstractBasicFileAttributeVie
 
   @Override
   public BasicFileAttributes readAttributes() throws IOException {
-    path.getFileSystem().provider().checkAccess(path);
-    return DesugarBasicFileAttributes.create(path.toFile());
+    DesugarUnixPath cachingPath = path instanceof DesugarUnixPath ? (DesugarUnixPath) path : null;
+    if (cachingPath != null) {
+      BasicFileAttributes cached = cachingPath.getCachedAttributes();
+      if (cached != null) {
+        return cached;
+      }
+    }
+    File file = path.toFile();
+    // A successful stat call also shows that the file exists.
+    DesugarBasicFileAttributes attributes = DesugarBasicFileAttributes.stat(file);
+    if (attributes == null) {
+      path.getFileSystem().provider().checkAccess(path);
+      attributes = DesugarBasicFileAttributes.fromFile(file);
+    }
+    if (cachingPath != null) {
+      cachingPath.setCachedAttributes(attributes);
+    }
+    return attributes;
   }
 
   @Override
@@ -53,6 +69,9 @@ class DesugarBasicFileAttributeView extends DesugarAbstractBasicFileAttributeVie
       return;
     }
     path.getFileSystem().provider().checkAccess(path, AccessMode.WRITE);
+    if (path instanceof DesugarUnixPath) {
+      ((DesugarUnixPath) path).invalidateCachedAttributes();
+    }
     File file = path.toFile();
     boolean setLastModifiedSuccessfully = file.setLastModified(lastModifiedTime.to(MILLISECONDS));
     if (!setLastModifiedSuccessfully) {
@@ -23,42 +23,110 @@ package desugar.sun.nio.fs;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
 import java.util.concurrent.TimeUnit;
 
 class DesugarBasicFileAttributes implements BasicFileAttributes {
 
+  // File type bits of st_mode, as in sun.nio.fs.UnixConstants.
+  private static final int S_IFMT = 0170000;
+  private static final int S_IFREG = 0100000;
+  private static final int S_IFDIR = 0040000;
+  private static final int S_IFLNK = 0120000;
+
+  private static final int SYMLINK_UNKNOWN = 0;
+  private static final int SYMLINK_FALSE = 1;
+  private static final int SYMLINK_TRUE = 2;
+
   private final FileTime lastModifiedTime;
   private final FileTime lastAccessTime;
   private final FileTime creationTime;
 
   private final boolean isRegularFile;
   private final boolean isDirectory;
-  private final boolean isSymbolicLink;
-  private final boolean isOther;
+  private final boolean isOtherType;
 
   private final long size;
   private final Object fileKey;
 
+  // The file whose symbolic link status is computed on first use, null once it is known.
+  private File symlinkCandidate;
+  private volatile int symlinkState;
+
+  /**
+   * Returns the attributes of the file, following symbolic links.
+   *
+   * <p>On Android, where android.system.Os is available, the attributes come from a single stat
+   * call and the file key is the (device, inode) pair of the file. Otherwise, they are gathered
+   * through {@link File}. In both cases whether the file is a symbolic link is only determined
+   * when {@link #isSymbolicLink()} or {@link #isOther()} need it.
+   */
   public static DesugarBasicFileAttributes create(File file) {
+    DesugarBasicFileAttributes attributes = stat(file);
+    return attributes != null ? attributes : fromFile(file);
+  }
+
+  /**
+   * Returns the attributes of the file gathered through {@link File}, for when {@link #stat} is
+   * not available or already failed.
+   */
+  static DesugarBasicFileAttributes fromFile(File file) {
     FileTime lastModifiedTime = FileTime.from(file.lastModified(), TimeUnit.MILLISECONDS);
     boolean isRegularFile = file.isFile();
-    boolean isDirectory = file.isDirectory();
-    boolean isSymbolicLink = isSymlink(file);
+    boolean isDirectory = !isRegularFile && file.isDirectory();
     return new DesugarBasicFileAttributes(
         lastModifiedTime,
         lastModifiedTime,
         lastModifiedTime,
         isRegularFile,
         isDirectory,
-        isSymbolicLink,
-        !(isRegularFile || isDirectory || isSymbolicLink),
+        /* isOtherType= */ !(isRegularFile || isDirectory),
         file.length(),
         // TODO(b/192427790): Replace the file key with a UnixFileAttributes-like implementation,
         // i.e. a pair of Device Id (st_dev) and file serial number (st_ino), or find an equivalent
         // alternative way to distinguish unique files on a device.
-        /* fileKey= */ file.hashCode());
+        /* fileKey= */ file.hashCode(),
+        /* symlinkCandidate= */ file,
+        SYMLINK_UNKNOWN);
+  }
+
+  /**
+   * Returns the attributes of the file from a single stat call, or null if android.system.Os is not
+   * available or the call failed, e.g. because the file does not exist.
+   */
+  static DesugarBasicFileAttributes stat(File file) {
+    if (!OsStat.AVAILABLE) {
+      return null;
+    }
+    Object structStat = OsStat.invoke(OsStat.stat, file.getPath());
+    if (structStat == null) {
+      return null;
+    }
+    try {
+      int mode = OsStat.stMode.getInt(structStat);
+      int type = mode & S_IFMT;
+      FileTime lastModifiedTime =
+          OsStat.toFileTime(structStat, OsStat.stMtim, OsStat.stMtime);
+      FileTime lastAccessTime = OsStat.toFileTime(structStat, OsStat.stAtim, OsStat.stAtime);
+      return new DesugarBasicFileAttributes(
+          lastModifiedTime,
+          lastAccessTime,
+          lastModifiedTime,
+          type == S_IFREG,
+          type == S_IFDIR,
+          /* isOtherType= */ type != S_IFREG && type != S_IFDIR,
+          OsStat.stSize.getLong(structStat),
+          new DesugarFileKey(
+              OsStat.stDev.getLong(structStat), OsStat.stIno.getLong(structStat)),
+          /* symlinkCandidate= */ file,
+          SYMLINK_UNKNOWN);
+    } catch (IllegalAccessException e) {
+      return null;
+    }
   }
 
   public DesugarBasicFileAttributes(
@@ -71,15 +139,40 @@ class DesugarBasicFileAttributes implements BasicFileAttributes {
       boolean isOther,
       long size,
       Object fileKey) {
+    this(
+        lastModifiedTime,
+        lastAccessTime,
+        creationTime,
+        isRegularFile,
+        isDirectory,
+        isOther,
+        size,
+        fileKey,
+        /* symlinkCandidate= */ null,
+        isSymbolicLink ? SYMLINK_TRUE : SYMLINK_FALSE);
+  }
+
+  private DesugarBasicFileAttributes(
+      FileTime lastModifiedTime,
+      FileTime lastAccessTime,
+      FileTime creationTime,
+      boolean isRegularFile,
+      boolean isDirectory,
+      boolean isOtherType,
+      long size,
+      Object fileKey,
+      File symlinkCandidate,
+      int symlinkState) {
     this.lastModifiedTime = lastModifiedTime;
     this.lastAccessTime = lastAccessTime;
     this.creationTime = creationTime;
     this.isRegularFile = isRegularFile;
     this.isDirectory = isDirectory;
-    this.isSymbolicLink = isSymbolicLink;
-    this.isOther = isOther;
+    this.isOtherType = isOtherType;
     this.size = size;
     this.fileKey = fileKey;
+    this.symlinkCandidate = symlinkCandidate;
+    this.symlinkState = symlinkState;
   }
 
   @Override
@@ -109,12 +202,23 @@ class DesugarBasicFileAttributes implements BasicFileAttributes {
 
   @Override
   public boolean isSymbolicLink() {
-    return isSymbolicLink;
+    int state = symlinkState;
+    if (state == SYMLINK_UNKNOWN) {
+      synchronized (this) {
+        state = symlinkState;
+        if (state == SYMLINK_UNKNOWN) {
+          state = isSymlinkNoCanonicalize(symlinkCandidate) ? SYMLINK_TRUE : SYMLINK_FALSE;
+          symlinkCandidate = null;
+          symlinkState = state;
+        }
+      }
+    }
+    return state == SYMLINK_TRUE;
   }
 
   @Override
   public boolean isOther() {
-    return isOther;
+    return isOtherType && !isSymbolicLink();
   }
 
   @Override
@@ -127,6 +231,21 @@ class DesugarBasicFileAttributes implements BasicFileAttributes {
     return fileKey;
   }
 
+  // Uses a single lstat call where available instead of canonicalizing the file.
+  private static boolean isSymlinkNoCanonicalize(File file) {
+    if (OsStat.AVAILABLE) {
+      Object structStat = OsStat.invoke(OsStat.lstat, file.getPath());
+      if (structStat != null) {
+        try {
+          return (OsStat.stMode.getInt(structStat) & S_IFMT) == S_IFLNK;
+        } catch (IllegalAccessException e) {
+          // Fall through.
+        }
+      }
+    }
+    return isSymlink(file);
+  }
+
   public static boolean isSymlink(File file) {
     if (file == null) {
       throw new NullPointerException("File must not be null");
@@ -144,4 +263,115 @@ class DesugarBasicFileAttributes implements BasicFileAttributes {
       return false;
     }
   }
+
+  /** A file key of a (device, inode) pair, like sun.nio.fs.UnixFileKey. */
+  static final class DesugarFileKey {
+    private final long st_dev;
+    private final long st_ino;
+
+    DesugarFileKey(long st_dev, long st_ino) {
+      this.st_dev = st_dev;
+      this.st_ino = st_ino;
+    }
+
+    /** Returns the ID of the device containing the file. */
+    long device() {
+      return st_dev;
+    }
+
+    @Override
+    public int hashCode() {
+      return (int) (st_dev ^ (st_dev >>> 32)) + (int) (st_ino ^ (st_ino >>> 32));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof DesugarFileKey)) {
+        return false;
+      }
+      DesugarFileKey other = (DesugarFileKey) obj;
+      return (this.st_dev == other.st_dev) && (this.st_ino == other.st_ino);
+    }
+
+    @Override
+    public String toString() {
+      return "(dev=" + Long.toHexString(st_dev) + ",ino=" + st_ino + ')';
+    }
+  }
+
+  /**
+   * Reflective access to android.system.Os#stat and #lstat, available on Android from API level
+   * 21. The nanosecond timestamps of StructStat exist from API level 27, older levels only have
+   * seconds.
+   */
+  private static final class OsStat {
+    static final boolean AVAILABLE;
+    static Method stat;
+    static Method lstat;
+    static Field stDev;
+    static Field stIno;
+    static Field stMode;
+    static Field stSize;
+    static Field stAtime;
+    static Field stMtime;
+    static Field stAtim;
+    static Field stMtim;
+    static Field tvSec;
+    static Field tvNsec;
+
+    static {
+      boolean available;
+      try {
+        Class<?> os = Class.forName("android.system.Os");
+        Class<?> structStat = Class.forName("android.system.StructStat");
+        stat = os.getMethod("stat", String.class);
+        lstat = os.getMethod("lstat", String.class);
+        stDev = structStat.getField("st_dev");
+        stIno = structStat.getField("st_ino");
+        stMode = structStat.getField("st_mode");
+        stSize = structStat.getField("st_size");
+        stAtime = structStat.getField("st_atime");
+        stMtime = structStat.getField("st_mtime");
+        try {
+          Class<?> structTimespec = Class.forName("android.system.StructTimespec");
+          stAtim = structStat.getField("st_atim");
+          stMtim = structStat.getField("st_mtim");
+          tvSec = structTimespec.getField("tv_sec");
+          tvNsec = structTimespec.getField("tv_nsec");
+        } catch (ReflectiveOperationException e) {
+          stAtim = null;
+          stMtim = null;
+        }
+        available = true;
+      } catch (ReflectiveOperationException | LinkageError e) {
+        available = false;
+      }
+      AVAILABLE = available;
+    }
+
+    // Returns the StructStat, or null if the call failed.
+    static Object invoke(Method method, String path) {
+      try {
+        return method.invoke(null, path);
+      } catch (InvocationTargetException | IllegalAccessException e) {
+        // An ErrnoException, e.g. ENOENT.
+        return null;
+      }
+    }
+
+    static FileTime toFileTime(Object structStat, Field timespec, Field seconds)
+        throws IllegalAccessException {
+      if (timespec != null) {
+        Object value = timespec.get(structStat);
+        return FileTime.from(
+            tvSec.getLong(value) * 1_000_000_000L + tvNsec.getLong(value), TimeUnit.NANOSECONDS);
+      }
+      return FileTime.from(seconds.getLong(structStat), TimeUnit.SECONDS);
+    }
+
+    private OsStat() {}
+  }
 }
@@ -0,0 +1,575 @@
+/*
+ * Copyright (c) 2021 Google LLC
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Google designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Google in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package desugar.sun.nio.fs;
+
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Matches paths against unix glob patterns without translating them to regular expressions.
+ *
+ * <p>A glob matches exactly the paths that the regular expression of {@link
+ * DesugarGlobs#toUnixRegexPattern} matches. Common shapes ({@code *.ext}, {@code **}{@code
+ * /name}, {@code prefix/**} and literals) are tested with string comparisons. Other globs are
+ * compiled into a non-deterministic automaton that is run over the path text in a single pass,
+ * in time linear in the length of the path whatever the number of wildcards. The few constructs
+ * whose regular expression has no plain glob meaning (empty or intersecting character classes,
+ * special range bounds, supplementary characters in the pattern) are still matched with a regular
+ * expression.
+ *
+ * <p>Paths are matched through their text rather than their name components, since {@code **} and
+ * the regular expression it replaces span names. The text of a {@link DesugarUnixPath} is kept by
+ * the path, so this allocates nothing. Each matcher tests a single glob: {@link PathMatcher} takes
+ * one pattern, and several globs written as one {@code {a,b,c}} glob are matched in one pass.
+ */
+final class DesugarGlobMatcher implements PathMatcher {
+
+  // Instructions of the automaton.
+  private static final int OP_CHAR = 0; // arg: the character
+  private static final int OP_ANY_IN_NAME = 1; // any code point but '/'
+  private static final int OP_ANY = 2; // any code point but a line terminator
+  private static final int OP_CLASS = 3; // arg: index of the class
+  private static final int OP_SPLIT = 4; // arg, arg2: the two next instructions
+  private static final int OP_JUMP = 5; // arg: the next instruction
+  private static final int OP_MATCH = 6;
+
+  // Shapes tested without running the automaton.
+  private static final int SHAPE_AUTOMATON = 0;
+  private static final int SHAPE_LITERAL = 1; // literal
+  private static final int SHAPE_STAR_SUFFIX = 2; // *literal
+  private static final int SHAPE_DOUBLE_STAR_SUFFIX = 3; // **literal
+  private static final int SHAPE_PREFIX_STAR = 4; // literal*
+  private static final int SHAPE_PREFIX_DOUBLE_STAR = 5; // literal**
+
+  private final int shape;
+  private final String literal;
+
+  private final int[] ops;
+  private final int[] args;
+  private final int[] args2;
+  private final CharClass[] classes;
+  // Literal text every match starts with, checked before running the automaton.
+  private final String requiredPrefix;
+
+  private DesugarGlobMatcher(int shape, String literal, Program program, String requiredPrefix) {
+    this.shape = shape;
+    this.literal = literal;
+    this.ops = program == null ? null : program.ops();
+    this.args = program == null ? null : program.args();
+    this.args2 = program == null ? null : program.args2();
+    this.classes = program == null ? null : program.classes.toArray(new CharClass[0]);
+    this.requiredPrefix = requiredPrefix;
+  }
+
+  /**
+   * Returns a matcher of the glob.
+   *
+   * @throws java.util.regex.PatternSyntaxException if the glob is invalid
+   */
+  static PathMatcher compile(String glob) {
+    String regex = DesugarGlobs.toUnixRegexPattern(glob);
+    List<Node> nodes = parse(glob);
+    if (nodes == null) {
+      Pattern pattern = Pattern.compile(regex);
+      return path -> pattern.matcher(path.toString()).matches();
+    }
+    int shape = shapeOf(nodes);
+    if (shape != SHAPE_AUTOMATON) {
+      return new DesugarGlobMatcher(shape, literalOf(nodes), null, null);
+    }
+    Program program = new Program();
+    program.emitGlob(nodes);
+    return new DesugarGlobMatcher(SHAPE_AUTOMATON, null, program, requiredPrefixOf(nodes));
+  }
+
+  @Override
+  public boolean matches(Path path) {
+    // The text of a DesugarUnixPath is not copied.
+    return matches(path.toString());
+  }
+
+  /** Returns whether the text matches the glob. */
+  boolean matches(String text) {
+    switch (shape) {
+      case SHAPE_LITERAL:
+        return text.equals(literal);
+      case SHAPE_STAR_SUFFIX:
+        return text.endsWith(literal) && text.indexOf('/') < 0;
+      case SHAPE_DOUBLE_STAR_SUFFIX:
+        return text.endsWith(literal)
+            && !containsLineTerminator(text, 0, text.length() - literal.length());
+      case SHAPE_PREFIX_STAR:
+        return text.startsWith(literal) && text.indexOf('/', literal.length()) < 0;
+      case SHAPE_PREFIX_DOUBLE_STAR:
+        return text.startsWith(literal)
+            && !containsLineTerminator(text, literal.length(), text.length());
+      default:
+        break;
+    }
+    if (!text.startsWith(requiredPrefix)) {
+      return false;
+    }
+    return run(text);
+  }
+
+  /**
+   * Runs the automaton over the text, keeping the set of instructions reached after each code
+   * point. Returns whether the glob matched.
+   */
+  private boolean run(String text) {
+    int size = ops.length;
+    int[] current = new int[size];
+    int[] next = new int[size];
+    // The last step at which each instruction was added, to add it once per step.
+    int[] addedAt = new int[size];
+    int[] stack = new int[size];
+    int step = 1;
+    int currentCount = addState(current, 0, 0, addedAt, step, stack);
+    int length = text.length();
+    for (int i = 0; i < length && currentCount > 0; ) {
+      int codePoint = text.codePointAt(i);
+      i += Character.charCount(codePoint);
+      step++;
+      int nextCount = 0;
+      for (int s = 0; s < currentCount; s++) {
+        int pc = current[s];
+        boolean accepted;
+        switch (ops[pc]) {
+          case OP_CHAR:
+            accepted = codePoint == args[pc];
+            break;
+          case OP_ANY_IN_NAME:
+            accepted = codePoint != '/';
+            break;
+          case OP_ANY:
+            accepted = !isLineTerminator(codePoint);
+            break;
+          case OP_CLASS:
+            accepted = classes[args[pc]].matches(codePoint);
+            break;
+          default:
+            accepted = false;
+            break;
+        }
+        if (accepted) {
+          nextCount = addState(next, nextCount, pc + 1, addedAt, step, stack);
+        }
+      }
+      int[] swap = current;
+      current = next;
+      next = swap;
+      currentCount = nextCount;
+    }
+    for (int s = 0; s < currentCount; s++) {
+      if (ops[current[s]] == OP_MATCH) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Adds the instruction and those reachable from it without consuming input.
+  private int addState(int[] states, int count, int pc, int[] addedAt, int step, int[] stack) {
+    int top = 0;
+    stack[top++] = pc;
+    while (top > 0) {
+      int state = stack[--top];
+      if (addedAt[state] == step) {
+        continue;
+      }
+      addedAt[state] = step;
+      switch (ops[state]) {
+        case OP_SPLIT:
+          stack[top++] = args2[state];
+          stack[top++] = args[state];
+          break;
+        case OP_JUMP:
+          stack[top++] = args[state];
+          break;
+        default:
+          states[count++] = state;
+          break;
+      }
+    }
+    return count;
+  }
+
+  // The line terminators that '.' does not match in a regular expression.
+  private static boolean isLineTerminator(int codePoint) {
+    return codePoint == '\n'
+        || codePoint == '\r'
+        || codePoint == '\u0085'
+        || codePoint == 0x2028
+        || codePoint == 0x2029;
+  }
+
+  private static boolean containsLineTerminator(String text, int begin, int end) {
+    for (int i = begin; i < end; i++) {
+      if (isLineTerminator(text.charAt(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int shapeOf(List<Node> nodes) {
+    int size = nodes.size();
+    int wildcards = 0;
+    for (Node node : nodes) {
+      if (node.kind != Node.LITERAL) {
+        wildcards++;
+      }
+    }
+    if (wildcards == 0) {
+      return SHAPE_LITERAL;
+    }
+    if (wildcards > 1) {
+      return SHAPE_AUTOMATON;
+    }
+    Node first = nodes.get(0);
+    Node last = nodes.get(size - 1);
+    if (first.kind == Node.STAR && literalOf(nodes).indexOf('/') < 0) {
+      return SHAPE_STAR_SUFFIX;
+    }
+    if (first.kind == Node.DOUBLE_STAR) {
+      return SHAPE_DOUBLE_STAR_SUFFIX;
+    }
+    if (last.kind == Node.STAR) {
+      return SHAPE_PREFIX_STAR;
+    }
+    if (last.kind == Node.DOUBLE_STAR) {
+      return SHAPE_PREFIX_DOUBLE_STAR;
+    }
+    return SHAPE_AUTOMATON;
+  }
+
+  // The literal characters of the nodes, in order.
+  private static String literalOf(List<Node> nodes) {
+    StringBuilder sb = new StringBuilder(nodes.size());
+    for (Node node : nodes) {
+      if (node.kind == Node.LITERAL) {
+        sb.append(node.literal);
+      }
+    }
+    return sb.toString();
+  }
+
+  private static String requiredPrefixOf(List<Node> nodes) {
+    StringBuilder sb = new StringBuilder();
+    for (Node node : nodes) {
+      if (node.kind != Node.LITERAL) {
+        break;
+      }
+      sb.append(node.literal);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Parses a valid glob the way {@link DesugarGlobs#toUnixRegexPattern} translates it. Returns null
+   * if the glob uses a construct that is left to a regular expression.
+   */
+  private static List<Node> parse(String glob) {
+    int length = glob.length();
+    for (int i = 0; i < length; i++) {
+      if (Character.isSurrogate(glob.charAt(i))) {
+        return null;
+      }
+    }
+    List<Node> nodes = new ArrayList<>();
+    List<List<Node>> group = null;
+    List<Node> target = nodes;
+    int i = 0;
+    while (i < length) {
+      char c = glob.charAt(i++);
+      switch (c) {
+        case '\\':
+          target.add(Node.literal(glob.charAt(i++)));
+          break;
+        case '[':
+          CharClass charClass = parseClass(glob, i);
+          if (charClass == null) {
+            return null;
+          }
+          target.add(Node.charClass(charClass));
+          i = charClass.end;
+          break;
+        case '{':
+          group = new ArrayList<>();
+          target = new ArrayList<>();
+          group.add(target);
+          break;
+        case '}':
+          if (group != null) {
+            nodes.add(Node.group(group));
+            group = null;
+            target = nodes;
+          } else {
+            target.add(Node.literal(c));
+          }
+          break;
+        case ',':
+          if (group != null) {
+            target = new ArrayList<>();
+            group.add(target);
+          } else {
+            target.add(Node.literal(c));
+          }
+          break;
+        case '*':
+          if (i < length && glob.charAt(i) == '*') {
+            target.add(Node.of(Node.DOUBLE_STAR));
+            i++;
+          } else {
+            target.add(Node.of(Node.STAR));
+          }
+          break;
+        case '?':
+          target.add(Node.of(Node.ANY_IN_NAME));
+          break;
+        default:
+          target.add(Node.literal(c));
+          break;
+      }
+    }
+    return nodes;
+  }
+
+  // Parses the class starting after '[' at index i, or returns null to use a regular expression.
+  private static CharClass parseClass(String glob, int i) {
+    int length = glob.length();
+    StringBuilder ranges = new StringBuilder();
+    boolean negated = false;
+    if (i < length && glob.charAt(i) == '^') {
+      ranges.append('^').append('^');
+      i++;
+    } else {
+      if (i < length && glob.charAt(i) == '!') {
+        negated = true;
+        i++;
+      }
+      if (i < length && glob.charAt(i) == '-') {
+        ranges.append('-').append('-');
+        i++;
+      }
+    }
+    while (i < length) {
+      char c = glob.charAt(i++);
+      if (c == ']') {
+        if (ranges.length() == 0) {
+          return null;
+        }
+        char[] bounds = new char[ranges.length()];
+        ranges.getChars(0, bounds.length, bounds, 0);
+        CharClass charClass = new CharClass(bounds, negated);
+        charClass.end = i;
+        return charClass;
+      }
+      if (c == '&' && i < length && glob.charAt(i) == '&') {
+        return null;
+      }
+      if (c == '-') {
+        char end = glob.charAt(i++);
+        if (end == ']') {
+          ranges.append('-').append('-');
+          i--;
+          continue;
+        }
+        if (end == '\\' || end == '[' || end == '&' || end == '-') {
+          return null;
+        }
+        // Widen the last single character into a range.
+        ranges.setCharAt(ranges.length() - 1, end);
+      } else {
+        ranges.append(c).append(c);
+      }
+    }
+    return null;
+  }
+
+  /** A glob construct; groups hold one list of nodes per alternative. */
+  private static final class Node {
+    static final int LITERAL = 0;
+    static final int ANY_IN_NAME = 1;
+    static final int STAR = 2;
+    static final int DOUBLE_STAR = 3;
+    static final int CLASS = 4;
+    static final int GROUP = 5;
+
+    final int kind;
+    char literal;
+    CharClass charClass;
+    List<List<Node>> alternatives;
+
+    private Node(int kind) {
+      this.kind = kind;
+    }
+
+    static Node of(int kind) {
+      return new Node(kind);
+    }
+
+    static Node literal(char c) {
+      Node node = new Node(LITERAL);
+      node.literal = c;
+      return node;
+    }
+
+    static Node charClass(CharClass charClass) {
+      Node node = new Node(CLASS);
+      node.charClass = charClass;
+      return node;
+    }
+
+    static Node group(List<List<Node>> alternatives) {
+      Node node = new Node(GROUP);
+      node.alternatives = alternatives;
+      return node;
+    }
+  }
+
+  /** A character class that, like its regular expression, never matches '/'. */
+  private static final class CharClass {
+    // Pairs of inclusive lower and upper bounds.
+    private final char[] bounds;
+    private final boolean negated;
+    // Index in the glob after the closing ']'.
+    int end;
+
+    CharClass(char[] bounds, boolean negated) {
+      this.bounds = bounds;
+      this.negated = negated;
+    }
+
+    boolean matches(int codePoint) {
+      if (codePoint == '/') {
+        return false;
+      }
+      boolean inRanges = false;
+      for (int i = 0; i < bounds.length; i += 2) {
+        if (codePoint >= bounds[i] && codePoint <= bounds[i + 1]) {
+          inRanges = true;
+          break;
+        }
+      }
+      return inRanges != negated;
+    }
+  }
+
+  /** The instructions of an automaton being compiled. */
+  private static final class Program {
+    final List<Integer> opList = new ArrayList<>();
+    final List<Integer> args = new ArrayList<>();
+    final List<Integer> args2 = new ArrayList<>();
+    final List<CharClass> classes = new ArrayList<>();
+
+    int size() {
+      return opList.size();
+    }
+
+    int emit(int op, int arg, int arg2) {
+      opList.add(op);
+      args.add(arg);
+      args2.add(arg2);
+      return opList.size() - 1;
+    }
+
+    void emitGlob(List<Node> nodes) {
+      emitNodes(nodes);
+      emit(OP_MATCH, 0, 0);
+    }
+
+    private void emitNodes(List<Node> nodes) {
+      for (Node node : nodes) {
+        switch (node.kind) {
+          case Node.LITERAL:
+            emit(OP_CHAR, node.literal, 0);
+            break;
+          case Node.ANY_IN_NAME:
+            emit(OP_ANY_IN_NAME, 0, 0);
+            break;
+          case Node.CLASS:
+            emit(OP_CLASS, classes.size(), 0);
+            classes.add(node.charClass);
+            break;
+          case Node.STAR:
+          case Node.DOUBLE_STAR:
+            {
+              // loop: split(body, exit); body: any; jump loop; exit:
+              int loop = emit(OP_SPLIT, 0, 0);
+              args.set(loop, size());
+              emit(node.kind == Node.STAR ? OP_ANY_IN_NAME : OP_ANY, 0, 0);
+              emit(OP_JUMP, loop, 0);
+              args2.set(loop, size());
+              break;
+            }
+          case Node.GROUP:
+            {
+              List<Integer> exits = new ArrayList<>();
+              List<List<Node>> alternatives = node.alternatives;
+              for (int i = 0; i < alternatives.size(); i++) {
+                int split = -1;
+                if (i < alternatives.size() - 1) {
+                  split = emit(OP_SPLIT, 0, 0);
+                  args.set(split, size());
+                }
+                emitNodes(alternatives.get(i));
+                if (split >= 0) {
+                  exits.add(emit(OP_JUMP, 0, 0));
+                  args2.set(split, size());
+                }
+              }
+              for (int exit : exits) {
+                args.set(exit, size());
+              }
+              break;
+            }
+          default:
+            throw new AssertionError(node.kind);
+        }
+      }
+    }
+
+    int[] ops() {
+      return toArray(opList);
+    }
+
+    int[] args() {
+      return toArray(args);
+    }
+
+    int[] args2() {
+      return toArray(args2);
+    }
+
+    private static int[] toArray(List<Integer> values) {
+      int[] result = new int[values.size()];
+      for (int i = 0; i < result.length; i++) {
+        result[i] = values.get(i);
+      }
+      return result;
+    }
+  }
+}
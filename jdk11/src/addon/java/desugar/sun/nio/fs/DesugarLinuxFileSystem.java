@@ -135,19 +135,16 @@ public class DesugarLinuxFileSystem extends FileSystem {
     String syntax = syntaxAndPattern.substring(0, pos);
     String input = syntaxAndPattern.substring(pos + 1);
 
-    String expr;
     if (syntax.equalsIgnoreCase(GLOB_SYNTAX)) {
-      expr = DesugarGlobs.toUnixRegexPattern(input);
-    } else {
-      if (syntax.equalsIgnoreCase(REGEX_SYNTAX)) {
-        expr = input;
-      } else {
-        throw new UnsupportedOperationException("Syntax '" + syntax + "' not recognized");
-      }
+      // For desugar: Match globs with DesugarGlobMatcher rather than a regular expression.
+      return DesugarGlobMatcher.compile(input);
+    }
+    if (!syntax.equalsIgnoreCase(REGEX_SYNTAX)) {
+      throw new UnsupportedOperationException("Syntax '" + syntax + "' not recognized");
     }
 
     // return matcher
-    final Pattern pattern = Pattern.compile(expr);
+    final Pattern pattern = Pattern.compile(input);
 
     return path -> pattern.matcher(path.toString()).matches();
   }
@@ -160,7 +157,6 @@ public class DesugarLinuxFileSystem extends FileSystem {
 
   @Override
   public WatchService newWatchService() throws IOException {
-    // TODO(deltazulu): Support this API
-    throw new UnsupportedOperationException();
+    return new DesugarPollingWatchService();
   }
 }
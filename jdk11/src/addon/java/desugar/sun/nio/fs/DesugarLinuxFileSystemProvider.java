@@ -25,15 +25,16 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.AccessMode;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.CopyOption;
 import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryNotEmptyException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.DirectoryStream.Filter;
 import java.nio.file.FileAlreadyExistsException;
@@ -45,6 +46,7 @@ import java.nio.file.NoSuchFileException;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributeView;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileAttribute;
@@ -53,6 +55,7 @@ import java.nio.file.spi.FileSystemProvider;
 import java.nio.file.spi.FileTypeDetector;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 
@@ -60,7 +63,22 @@ import java.util.concurrent.ExecutorService;
 public class DesugarLinuxFileSystemProvider extends FileSystemProvider {
 
   private static final String FILE_SCHEME = "file";
+
+  /**
+   * Whether the paths of directory entries hold the basic attributes of their file once read, so
+   * that the checks made on an entry during a traversal like Files.walk read the file system once.
+   * Enabled with the system property {@code desugar.sun.nio.fs.cacheTraversalAttributes}.
+   *
+   * <p>The attributes are cached on the entry's Path object only, paths derived from it do not
+   * share them. They are invalidated when the file is modified through this provider with that
+   * same Path object: deleted, moved, copied or written to, created as a directory or having its
+   * times set. Changes made by any other means are not observed by the entry.
+   */
+  private static final boolean CACHE_TRAVERSAL_ATTRIBUTES =
+      Boolean.getBoolean("desugar.sun.nio.fs.cacheTraversalAttributes");
   private static final int DEFAULT_BUFFER_SIZE = 8192;
+  // Upper bound of bytes transferred per FileChannel.transferTo call.
+  private static final long TRANSFER_SIZE = 8L * 1024 * 1024;
 
   private final String userDir;
   private final String rootDir;
@@ -118,6 +136,7 @@ public class DesugarLinuxFileSystemProvider extends FileSystemProvider {
 
   @Override
   public void createDirectory(Path dir, FileAttribute<?>... attrs) throws IOException {
+    invalidateCachedAttributes(dir);
     if (dir.getParent() != null && !Files.exists(dir.getParent())) {
       throw new NoSuchFileException(dir.toString());
     }
@@ -148,6 +167,7 @@ public class DesugarLinuxFileSystemProvider extends FileSystemProvider {
 
   @Override
   public boolean deleteIfExists(Path path) throws IOException {
+    invalidateCachedAttributes(path);
     return path.toFile().delete();
   }
 
@@ -165,6 +185,9 @@ public class DesugarLinuxFileSystemProvider extends FileSystemProvider {
       throw new UnsupportedOperationException(
           "The desugar library does not support creating a file channel on a directory: " + path);
     }
+    if (!options.isEmpty() && !(options.size() == 1 && options.contains(StandardOpenOption.READ))) {
+      invalidateCachedAttributes(path);
+    }
     return DesugarFileChannel.openEmulatedFileChannel(path, options, attrs);
   }
 
@@ -175,7 +198,7 @@ public class DesugarLinuxFileSystemProvider extends FileSystemProvider {
       ExecutorService executor,
       FileAttribute<?>... attrs)
       throws IOException {
-    throw new UnsupportedOperationException();
+    return DesugarAsynchronousFileChannel.open(path, options, executor, attrs);
   }
 
   @Override
@@ -202,14 +225,8 @@ public class DesugarLinuxFileSystemProvider extends FileSystemProvider {
     if (containsCopyOption(options, StandardCopyOption.ATOMIC_MOVE)) {
       throw new UnsupportedOperationException("Unsupported copy option");
     }
-    try (InputStream in = new FileInputStream(source.toFile());
-        OutputStream out = new FileOutputStream(target.toFile())) {
-      byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
-      int read;
-      while ((read = in.read(buffer, 0, DEFAULT_BUFFER_SIZE)) >= 0) {
-        out.write(buffer, 0, read);
-      }
-    }
+    invalidateCachedAttributes(target);
+    copyFile(source.toFile(), target.toFile());
   }
 
   @Override
@@ -220,9 +237,112 @@ public class DesugarLinuxFileSystemProvider extends FileSystemProvider {
     if (containsCopyOption(options, StandardCopyOption.COPY_ATTRIBUTES)) {
       throw new UnsupportedOperationException("Unsupported copy option");
     }
+    invalidateCachedAttributes(source);
+    invalidateCachedAttributes(target);
     File sourceFile = source.toFile();
     File targetFile = target.toFile();
-    sourceFile.renameTo(targetFile);
+    if (sourceFile.renameTo(targetFile)) {
+      return;
+    }
+    if (!sourceFile.exists()) {
+      throw new NoSuchFileException(source.toString());
+    }
+    // Only a rename across mounts falls back to copy and delete. A rename failing for other
+    // reasons, e.g. permissions, would fail the deletion of the source after the copy.
+    File sourceDirectory = sourceFile.getAbsoluteFile().getParentFile();
+    File targetDirectory = targetFile.getAbsoluteFile().getParentFile();
+    if (sourceDirectory == null
+        || targetDirectory == null
+        || !sourceDirectory.canWrite()
+        || isSameDevice(sourceFile, targetDirectory)) {
+      throw new IOException(String.format("Unable to move %s to %s", source, target));
+    }
+    if (containsCopyOption(options, StandardCopyOption.ATOMIC_MOVE)) {
+      throw new AtomicMoveNotSupportedException(
+          source.toString(), target.toString(), "Rename failed");
+    }
+    boolean targetExisted = targetFile.exists();
+    if (sourceFile.isDirectory()) {
+      String[] entries = sourceFile.list();
+      if (entries != null && entries.length > 0) {
+        throw new DirectoryNotEmptyException(source.toString());
+      }
+      if (!targetFile.mkdir() && !targetFile.isDirectory()) {
+        throw new IOException(String.format("Unable to create directory %s", target));
+      }
+    } else {
+      // Copy next to the target and rename the copy over it, so that a failed copy leaves the
+      // target as it was.
+      File copy = File.createTempFile(".move", ".tmp", targetDirectory);
+      try {
+        copyFile(sourceFile, copy);
+        if (!copy.renameTo(targetFile)) {
+          throw new IOException(String.format("Unable to move %s to %s", source, target));
+        }
+      } finally {
+        copy.delete();
+      }
+    }
+    if (!sourceFile.delete()) {
+      // Never delete a target that existed before the move.
+      if (!targetExisted) {
+        targetFile.delete();
+      }
+      throw new IOException(String.format("Unable to delete %s after copying it", source));
+    }
+  }
+
+  /**
+   * Returns whether the file and the directory are known to be on the same device, which requires
+   * android.system.Os.
+   */
+  private static boolean isSameDevice(File file, File directory) {
+    DesugarBasicFileAttributes fileAttributes = DesugarBasicFileAttributes.stat(file);
+    DesugarBasicFileAttributes directoryAttributes = DesugarBasicFileAttributes.stat(directory);
+    if (fileAttributes == null || directoryAttributes == null) {
+      return false;
+    }
+    Object fileKey = fileAttributes.fileKey();
+    Object directoryKey = directoryAttributes.fileKey();
+    return fileKey instanceof DesugarBasicFileAttributes.DesugarFileKey
+        && directoryKey instanceof DesugarBasicFileAttributes.DesugarFileKey
+        && ((DesugarBasicFileAttributes.DesugarFileKey) fileKey).device()
+            == ((DesugarBasicFileAttributes.DesugarFileKey) directoryKey).device();
+  }
+
+  private static void copyFile(File source, File target) throws IOException {
+    try (FileChannel in = new FileInputStream(source).getChannel();
+        FileChannel out = new FileOutputStream(target).getChannel()) {
+      long size = in.size();
+      long position = 0;
+      while (position < size) {
+        long transferred = in.transferTo(position, Math.min(size - position, TRANSFER_SIZE), out);
+        if (transferred <= 0) {
+          break;
+        }
+        position += transferred;
+      }
+      // Copy the rest through a buffer until the end of the file, for the bytes the channel did
+      // not transfer, bytes appended since the size was read, and files that report no size such
+      // as those of /proc or pipes. Pipes cannot seek, but nothing was transferred from them.
+      if (position > 0) {
+        in.position(position);
+      }
+      ByteBuffer buffer = ByteBuffer.allocateDirect(DEFAULT_BUFFER_SIZE);
+      while (in.read(buffer) >= 0) {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+          out.write(buffer);
+        }
+        buffer.clear();
+      }
+    }
+  }
+
+  private static void invalidateCachedAttributes(Path path) {
+    if (path instanceof DesugarUnixPath) {
+      ((DesugarUnixPath) path).invalidateCachedAttributes();
+    }
   }
 
   private boolean containsCopyOption(CopyOption[] options, CopyOption option) {
@@ -276,6 +396,12 @@ public class DesugarLinuxFileSystemProvider extends FileSystemProvider {
 
   @Override
   public void checkAccess(Path path, AccessMode... modes) throws IOException {
+    if (modes.length == 0
+        && path instanceof DesugarUnixPath
+        && ((DesugarUnixPath) path).getCachedAttributes() != null) {
+      // The file existed when its attributes were cached.
+      return;
+    }
     File file = path.toFile();
     if (!file.exists()) {
       throw new NoSuchFileException(path.toString());
@@ -407,35 +533,55 @@ public class DesugarLinuxFileSystemProvider extends FileSystemProvider {
   class DesugarPathIterator implements Iterator<Path> {
 
     private final Filter<? super Path> filter;
-    private final File[] candidates;
+    private final String dirPrefix;
+    // Only the entry names are listed upfront; a path is built when an entry is reached, and
+    // consumed names are released so that they do not outlive the iteration.
+    private final String[] names;
     private int index = 0;
+    // The next accepted entry, fetched ahead by hasNext().
+    private Path nextEntry;
 
     DesugarPathIterator(Path dir, Filter<? super Path> filter) {
       // We compute the list of files upfront instead of lazily, which can lead to exceptions
       // being raised at a slightly different time.
-      File[] theCandidates = dir.toFile().listFiles();
-      this.candidates = theCandidates == null ? new File[] {} : theCandidates;
+      String[] theNames = dir.toFile().list();
+      this.names = theNames == null ? new String[] {} : theNames;
+      String dirText = dir.toString();
+      this.dirPrefix = dirText.endsWith(DesugarLinuxFileSystem.SEPARATOR)
+          ? dirText
+          : dirText + DesugarLinuxFileSystem.SEPARATOR;
       this.filter = filter;
     }
 
     @Override
     public boolean hasNext() {
-      if (next() != null) {
-        index--;
-        return true;
+      if (nextEntry == null) {
+        nextEntry = fetchNext();
       }
-      return false;
+      return nextEntry != null;
     }
 
     @Override
     public Path next() {
-      // Look for the next matching path, if none, return null;
-      for (; ; ) {
-        if (index >= candidates.length) {
-          return null;
-        }
-        File nextFile = candidates[index++];
-        Path pathEntry = new DesugarUnixPath(theFileSystem, nextFile.getPath(), userDir, rootDir);
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Path result = nextEntry;
+      nextEntry = null;
+      return result;
+    }
+
+    // Look for the next matching path, if none, return null.
+    private Path fetchNext() {
+      while (index < names.length) {
+        String name = names[index];
+        names[index++] = null;
+        String entryText = dirPrefix + name;
+        Path pathEntry =
+            CACHE_TRAVERSAL_ATTRIBUTES
+                ? DesugarUnixPath.newAttributeCachingPath(
+                    theFileSystem, entryText, userDir, rootDir)
+                : new DesugarUnixPath(theFileSystem, entryText, userDir, rootDir);
         boolean accept;
         try {
           accept = filter.accept(pathEntry);
@@ -446,6 +592,7 @@ public class DesugarLinuxFileSystemProvider extends FileSystemProvider {
           return pathEntry;
         }
       }
+      return null;
     }
   }
 
@@ -0,0 +1,576 @@
+/*
+ * Copyright (c) 2021 Google LLC
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Google designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Google in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package desugar.sun.nio.fs;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Linux implementation of {@link WatchService} for desugar support.
+ *
+ * <p>Like sun.nio.fs.PollingWatchService, registered directories are polled for changes. Each key
+ * keeps a snapshot of the names, sizes and modification times of the directory entries, sorted by
+ * name, and reports the differences with the current state of the directory. The directory is only
+ * listed again when its own modification time changed, otherwise only the known entries are
+ * checked for modifications. All keys of all watch services are polled by one daemon thread.
+ */
+public class DesugarPollingWatchService implements WatchService {
+
+  /**
+   * Milliseconds between two polls of a registered directory, set with the system property {@code
+   * desugar.sun.nio.fs.watchServicePollingIntervalMillis}. Defaults to 2 seconds, the interval of
+   * the high sensitivity of sun.nio.fs.PollingWatchService.
+   */
+  static final long POLLING_INTERVAL_MILLIS =
+      Math.max(1L, Long.getLong("desugar.sun.nio.fs.watchServicePollingIntervalMillis", 2000L));
+
+  // Changes made to a directory within this time of its last listing may not change its
+  // modification time again, e.g. on file systems with a coarse timestamp granularity.
+  private static final long MODIFIED_TIME_GRANULARITY_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+  // Maximum number of pending events of a key, as in sun.nio.fs.AbstractWatchKey.
+  private static final int MAX_EVENT_LIST_SIZE = 512;
+
+  // Special key to indicate that the watch service is closed.
+  private static final WatchKey CLOSE_KEY =
+      new WatchKey() {
+        @Override
+        public boolean isValid() {
+          return true;
+        }
+
+        @Override
+        public List<WatchEvent<?>> pollEvents() {
+          return Collections.emptyList();
+        }
+
+        @Override
+        public boolean reset() {
+          return true;
+        }
+
+        @Override
+        public void cancel() {}
+
+        @Override
+        public Path watchable() {
+          return null;
+        }
+      };
+
+  // Signaled keys waiting to be dequeued.
+  private final LinkedBlockingDeque<WatchKey> pendingKeys = new LinkedBlockingDeque<>();
+
+  // Registrations by file key, or by absolute path when file keys are not unique.
+  private final Map<Object, DesugarPollingWatchKey> keys = new HashMap<>();
+
+  private final Object closeLock = new Object();
+  private volatile boolean closed;
+
+  DesugarPollingWatchService() {}
+
+  /** Registers the directory with this watch service, see {@link Path#register}. */
+  WatchKey register(Path dir, WatchEvent.Kind<?>[] events, WatchEvent.Modifier... modifiers)
+      throws IOException {
+    // Validations that resemble sun.nio.fs.PollingWatchService#register.
+    Set<WatchEvent.Kind<?>> eventSet = new HashSet<>(events.length);
+    for (WatchEvent.Kind<?> event : events) {
+      if (event == StandardWatchEventKinds.ENTRY_CREATE
+          || event == StandardWatchEventKinds.ENTRY_MODIFY
+          || event == StandardWatchEventKinds.ENTRY_DELETE) {
+        eventSet.add(event);
+        continue;
+      }
+      if (event == StandardWatchEventKinds.OVERFLOW) {
+        continue;
+      }
+      if (event == null) {
+        throw new NullPointerException("An element in event set is 'null'");
+      }
+      throw new UnsupportedOperationException(event.name());
+    }
+    if (eventSet.isEmpty()) {
+      throw new IllegalArgumentException("No events to register");
+    }
+    for (WatchEvent.Modifier modifier : modifiers) {
+      if (modifier == null) {
+        throw new NullPointerException();
+      }
+      throw new UnsupportedOperationException("Modifier not supported");
+    }
+    checkOpen();
+
+    BasicFileAttributes attributes = Files.readAttributes(dir, BasicFileAttributes.class);
+    if (!attributes.isDirectory()) {
+      throw new NotDirectoryException(dir.toString());
+    }
+    // Without android.system.Os, the file key is a hash code of the path that may collide.
+    Object registrationKey =
+        attributes.fileKey() instanceof DesugarBasicFileAttributes.DesugarFileKey
+            ? attributes.fileKey()
+            : dir.toAbsolutePath().toString();
+
+    synchronized (closeLock) {
+      checkOpen();
+      DesugarPollingWatchKey watchKey;
+      DesugarPollingWatchKey existingKey;
+      // A key is never locked while holding the registrations, see DesugarPollingWatchKey#poll.
+      synchronized (keys) {
+        watchKey = existingKey = keys.get(registrationKey);
+        if (watchKey == null) {
+          watchKey = new DesugarPollingWatchKey(dir, this, registrationKey);
+          keys.put(registrationKey, watchKey);
+        }
+      }
+      if (existingKey != null) {
+        existingKey.disable();
+      }
+      watchKey.enable(eventSet);
+      return watchKey;
+    }
+  }
+
+  private void enqueueKey(WatchKey key) {
+    pendingKeys.offer(key);
+  }
+
+  private void checkOpen() {
+    if (closed) {
+      throw new ClosedWatchServiceException();
+    }
+  }
+
+  // Checks the key isn't the special CLOSE_KEY used to wake up the threads waiting for keys when
+  // the watch service is closed.
+  private void checkKey(WatchKey key) {
+    if (key == CLOSE_KEY) {
+      enqueueKey(key);
+    }
+    checkOpen();
+  }
+
+  @Override
+  public WatchKey poll() {
+    checkOpen();
+    WatchKey key = pendingKeys.poll();
+    checkKey(key);
+    return key;
+  }
+
+  @Override
+  public WatchKey poll(long timeout, TimeUnit unit) throws InterruptedException {
+    checkOpen();
+    WatchKey key = pendingKeys.poll(timeout, unit);
+    checkKey(key);
+    return key;
+  }
+
+  @Override
+  public WatchKey take() throws InterruptedException {
+    checkOpen();
+    WatchKey key = pendingKeys.take();
+    checkKey(key);
+    return key;
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (closeLock) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      List<DesugarPollingWatchKey> closedKeys;
+      synchronized (keys) {
+        closedKeys = new ArrayList<>(keys.values());
+        keys.clear();
+      }
+      for (DesugarPollingWatchKey watchKey : closedKeys) {
+        watchKey.disable();
+        watchKey.invalidate();
+      }
+      pendingKeys.clear();
+      pendingKeys.offer(CLOSE_KEY);
+    }
+  }
+
+  /**
+   * The thread polling the keys of all watch services, created on first use. It is a daemon thread
+   * so that the executor needs no shutdown.
+   */
+  private static class PollerHolder {
+    static final ScheduledExecutorService POLLER =
+        new ScheduledThreadPoolExecutor(
+            1,
+            runnable -> {
+              Thread thread = new Thread(runnable, "desugar-watch-service");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /** The size and modification time of a file, read with a single stat call when possible. */
+  private static final class FileStamp {
+    long size;
+    long modifiedNanos;
+
+    /** Returns false if the file does not exist anymore. */
+    boolean read(File file) {
+      DesugarBasicFileAttributes attributes = DesugarBasicFileAttributes.stat(file);
+      if (attributes != null) {
+        size = attributes.size();
+        modifiedNanos = attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+        return true;
+      }
+      long lastModified = file.lastModified();
+      if (lastModified == 0L && !file.exists()) {
+        return false;
+      }
+      size = file.length();
+      modifiedNanos = TimeUnit.MILLISECONDS.toNanos(lastModified);
+      return true;
+    }
+  }
+
+  /**
+   * A registered directory, polled periodically. Events are coalesced like in
+   * sun.nio.fs.AbstractWatchKey: a repeated event, or a modification of an entry whose last pending
+   * event is a modification, increments the count of the pending event.
+   */
+  private static final class DesugarPollingWatchKey implements WatchKey {
+
+    private final Path dir;
+    private final File directory;
+    private final DesugarPollingWatchService watcher;
+    private final Object registrationKey;
+    private final FileStamp stamp = new FileStamp();
+
+    private volatile boolean valid = true;
+    private boolean signalled;
+
+    private Set<? extends WatchEvent.Kind<?>> events;
+    private ScheduledFuture<?> poller;
+
+    private List<WatchEvent<?>> pendingEvents = new ArrayList<>();
+    // Maps an entry to its last pending event iff that event is an ENTRY_MODIFY event.
+    private final Map<Object, DesugarWatchEvent<?>> lastModifyEvents = new HashMap<>();
+
+    // The snapshot of the directory, with entries sorted by name.
+    private long directoryModifiedNanos;
+    private long listedAtNanos;
+    private String[] names = new String[0];
+    private long[] sizes = new long[0];
+    private long[] modifiedNanos = new long[0];
+
+    DesugarPollingWatchKey(Path dir, DesugarPollingWatchService watcher, Object registrationKey)
+        throws IOException {
+      this.dir = dir;
+      this.directory = dir.toFile();
+      this.watcher = watcher;
+      this.registrationKey = registrationKey;
+      if (!stamp.read(directory) || !list(stamp.modifiedNanos, /* signal= */ false)) {
+        throw new IOException("Unable to list the directory " + dir);
+      }
+    }
+
+    @Override
+    public Path watchable() {
+      return dir;
+    }
+
+    @Override
+    public boolean isValid() {
+      return valid;
+    }
+
+    void invalidate() {
+      valid = false;
+    }
+
+    synchronized void enable(Set<? extends WatchEvent.Kind<?>> events) {
+      this.events = events;
+      poller =
+          PollerHolder.POLLER.scheduleWithFixedDelay(
+              this::poll, POLLING_INTERVAL_MILLIS, POLLING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void disable() {
+      if (poller != null) {
+        poller.cancel(false);
+      }
+    }
+
+    @Override
+    public void cancel() {
+      valid = false;
+      synchronized (watcher.keys) {
+        watcher.keys.remove(registrationKey);
+      }
+      disable();
+    }
+
+    /**
+     * Polls the directory, and cancels this key if the directory is no longer accessible. Cancelling
+     * locks the registrations, so it is done without holding the lock of this key.
+     */
+    void poll() {
+      if (!pollDirectory()) {
+        cancel();
+        signal();
+      }
+    }
+
+    /**
+     * Compares the directory with its snapshot and signals the differences. Returns false if the
+     * directory is no longer accessible.
+     */
+    private synchronized boolean pollDirectory() {
+      if (!valid) {
+        return true;
+      }
+      if (!stamp.read(directory)) {
+        return false;
+      }
+      long directoryTime = stamp.modifiedNanos;
+      boolean entriesUnchanged =
+          directoryTime == directoryModifiedNanos
+              && listedAtNanos - directoryTime > MODIFIED_TIME_GRANULARITY_NANOS;
+      if (entriesUnchanged && pollEntries()) {
+        return true;
+      }
+      return list(directoryTime, /* signal= */ true);
+    }
+
+    /**
+     * Checks the entries of the snapshot for modifications. Returns false if one of them does not
+     * exist anymore, in which case the directory needs to be listed.
+     */
+    private boolean pollEntries() {
+      for (int i = 0; i < names.length; i++) {
+        if (!stamp.read(new File(directory, names[i]))) {
+          return false;
+        }
+        if (stamp.size != sizes[i] || stamp.modifiedNanos != modifiedNanos[i]) {
+          sizes[i] = stamp.size;
+          modifiedNanos[i] = stamp.modifiedNanos;
+          signalEvent(StandardWatchEventKinds.ENTRY_MODIFY, names[i]);
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Lists the directory, replaces the snapshot and, if requested, signals the differences with
+     * the previous one. Returns false if the directory cannot be listed.
+     */
+    private boolean list(long directoryTime, boolean signal) {
+      long listedAt = System.currentTimeMillis();
+      String[] currentNames = directory.list();
+      if (currentNames == null) {
+        return false;
+      }
+      Arrays.sort(currentNames);
+      String[] oldNames = names;
+      int count = 0;
+      long[] currentSizes = new long[currentNames.length];
+      long[] currentModifiedNanos = new long[currentNames.length];
+      int oldIndex = 0;
+      for (String name : currentNames) {
+        // Entries of the previous snapshot before this one in name order have been deleted.
+        while (oldIndex < oldNames.length && oldNames[oldIndex].compareTo(name) < 0) {
+          signalDelete(signal, oldNames[oldIndex++]);
+        }
+        if (!stamp.read(new File(directory, name))) {
+          // Deleted since listed, it is reported on the next poll if it is in the old snapshot.
+          continue;
+        }
+        if (oldIndex < oldNames.length && oldNames[oldIndex].equals(name)) {
+          if (signal
+              && (stamp.size != sizes[oldIndex] || stamp.modifiedNanos != modifiedNanos[oldIndex])) {
+            signalEvent(StandardWatchEventKinds.ENTRY_MODIFY, name);
+          }
+          oldIndex++;
+        } else if (signal) {
+          signalCreate(name);
+        }
+        currentNames[count] = name;
+        currentSizes[count] = stamp.size;
+        currentModifiedNanos[count] = stamp.modifiedNanos;
+        count++;
+      }
+      while (oldIndex < oldNames.length) {
+        signalDelete(signal, oldNames[oldIndex++]);
+      }
+      if (count < currentNames.length) {
+        currentNames = Arrays.copyOf(currentNames, count);
+        currentSizes = Arrays.copyOf(currentSizes, count);
+        currentModifiedNanos = Arrays.copyOf(currentModifiedNanos, count);
+      }
+      names = currentNames;
+      sizes = currentSizes;
+      modifiedNanos = currentModifiedNanos;
+      directoryModifiedNanos = directoryTime;
+      listedAtNanos = TimeUnit.MILLISECONDS.toNanos(listedAt);
+      return true;
+    }
+
+    private void signalCreate(String name) {
+      if (events.contains(StandardWatchEventKinds.ENTRY_CREATE)) {
+        signalEvent(StandardWatchEventKinds.ENTRY_CREATE, name);
+      } else {
+        // Like sun.nio.fs.PollingWatchService, report the creation as a modification to not miss
+        // the modifications made right after the creation.
+        signalEvent(StandardWatchEventKinds.ENTRY_MODIFY, name);
+      }
+    }
+
+    private void signalDelete(boolean signal, String name) {
+      if (signal) {
+        signalEvent(StandardWatchEventKinds.ENTRY_DELETE, name);
+      }
+    }
+
+    /** Enqueues this key to the watch service. */
+    private synchronized void signal() {
+      if (!signalled) {
+        signalled = true;
+        watcher.enqueueKey(this);
+      }
+    }
+
+    /** Adds the event for the entry if its kind is registered, and signals this key. */
+    @SuppressWarnings("unchecked")
+    private synchronized void signalEvent(WatchEvent.Kind<?> kind, String name) {
+      if (!events.contains(kind)) {
+        return;
+      }
+      Path context = dir.getFileSystem().getPath(name);
+      boolean isModify = kind == StandardWatchEventKinds.ENTRY_MODIFY;
+      int size = pendingEvents.size();
+      if (size > 0) {
+        WatchEvent<?> previous = pendingEvents.get(size - 1);
+        if (previous.kind() == StandardWatchEventKinds.OVERFLOW
+            || (previous.kind() == kind && Objects.equals(previous.context(), context))) {
+          ((DesugarWatchEvent<?>) previous).increment();
+          return;
+        }
+        if (isModify) {
+          DesugarWatchEvent<?> lastModifyEvent = lastModifyEvents.get(context);
+          if (lastModifyEvent != null) {
+            lastModifyEvent.increment();
+            return;
+          }
+        } else {
+          lastModifyEvents.remove(context);
+        }
+        if (size >= MAX_EVENT_LIST_SIZE) {
+          pendingEvents.clear();
+          lastModifyEvents.clear();
+          pendingEvents.add(new DesugarWatchEvent<>(StandardWatchEventKinds.OVERFLOW, null));
+          signal();
+          return;
+        }
+      }
+      DesugarWatchEvent<Path> event =
+          new DesugarWatchEvent<>((WatchEvent.Kind<Path>) kind, context);
+      if (isModify) {
+        lastModifyEvents.put(context, event);
+      }
+      pendingEvents.add(event);
+      signal();
+    }
+
+    @Override
+    public synchronized List<WatchEvent<?>> pollEvents() {
+      List<WatchEvent<?>> result = pendingEvents;
+      pendingEvents = new ArrayList<>();
+      lastModifyEvents.clear();
+      return result;
+    }
+
+    @Override
+    public synchronized boolean reset() {
+      if (signalled && isValid()) {
+        if (pendingEvents.isEmpty()) {
+          signalled = false;
+        } else {
+          watcher.enqueueKey(this);
+        }
+      }
+      return isValid();
+    }
+  }
+
+  /** A {@link WatchEvent}, its count is guarded by the key of the event. */
+  private static final class DesugarWatchEvent<T> implements WatchEvent<T> {
+    private final WatchEvent.Kind<T> kind;
+    private final T context;
+    private int count = 1;
+
+    DesugarWatchEvent(WatchEvent.Kind<T> kind, T context) {
+      this.kind = kind;
+      this.context = context;
+    }
+
+    @Override
+    public WatchEvent.Kind<T> kind() {
+      return kind;
+    }
+
+    @Override
+    public T context() {
+      return context;
+    }
+
+    @Override
+    public int count() {
+      return count;
+    }
+
+    void increment() {
+      count++;
+    }
+  }
+}
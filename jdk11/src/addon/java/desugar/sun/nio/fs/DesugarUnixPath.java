@@ -21,8 +21,6 @@
 
 package desugar.sun.nio.fs;
 
-import static java.util.Arrays.stream;
-
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
@@ -30,68 +28,205 @@ import java.nio.file.AccessMode;
 import java.nio.file.FileSystem;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.nio.file.ProviderMismatchException;
 import java.nio.file.WatchEvent.Kind;
 import java.nio.file.WatchEvent.Modifier;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
-import java.util.ArrayDeque;
-import java.util.ArrayList;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.Collections;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Objects;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
-/** Linux implementation of {@link java.nio.file.Path} for desugar support. */
+/**
+ * Linux implementation of {@link java.nio.file.Path} for desugar support.
+ *
+ * <p>Like sun.nio.fs.UnixPath, a path is kept as its normalized text, without redundant or
+ * trailing slashes, and the offsets of its names in that text are computed on first use.
+ */
 public class DesugarUnixPath implements Path {
 
+  private static final char SEPARATOR_CHAR = '/';
   private static final String SEPARATOR = "/";
-  private static final Pattern PATH_COMPONENT_SPLITERATOR = Pattern.compile("/+");
 
   private final FileSystem fileSystem;
   private final String pathText;
-  private final List<String> fileNames;
-  private final boolean isAbsolutePath;
 
   private final String userDir;
   private final String rootDir;
 
+  // offsets into name components (computed lazily)
+  private volatile int[] offsets;
+
   // byte array representation (created lazily)
   private volatile byte[] byteArrayValue;
 
+  // Whether this path holds the attributes of its file once read, see
+  // DesugarLinuxFileSystemProvider#CACHE_TRAVERSAL_ATTRIBUTES.
+  private final boolean cachesAttributes;
+  private volatile BasicFileAttributes cachedAttributes;
+
   public DesugarUnixPath(FileSystem fileSystem, String rawPath, String userDir, String rootDir) {
-    this(fileSystem, rawPath.startsWith(SEPARATOR), getFileNames(rawPath), userDir, rootDir);
+    this(
+        fileSystem,
+        normalizeSeparators(rawPath),
+        /* offsets= */ null,
+        userDir,
+        rootDir,
+        /* cachesAttributes= */ false);
   }
 
   private DesugarUnixPath(
       FileSystem fileSystem,
-      boolean isAbsolutePath,
-      List<String> fileNames,
+      String pathText,
+      int[] offsets,
       String userDir,
-      String rootDir) {
+      String rootDir,
+      boolean cachesAttributes) {
     this.fileSystem = fileSystem;
-    this.isAbsolutePath = isAbsolutePath;
-    this.fileNames = fileNames;
-
-    this.pathText = getPathText(isAbsolutePath, fileNames);
+    this.pathText = pathText;
+    this.offsets = offsets;
     this.userDir = userDir;
     this.rootDir = rootDir;
+    this.cachesAttributes = cachesAttributes;
+  }
+
+  /** Returns a path of this file system for text that is already normalized. */
+  private DesugarUnixPath newPath(String normalizedPathText) {
+    return new DesugarUnixPath(
+        fileSystem,
+        normalizedPathText,
+        /* offsets= */ null,
+        userDir,
+        rootDir,
+        /* cachesAttributes= */ false);
+  }
+
+  /** Returns a path for a directory entry that holds the attributes of its file once read. */
+  static DesugarUnixPath newAttributeCachingPath(
+      FileSystem fileSystem, String rawPath, String userDir, String rootDir) {
+    return new DesugarUnixPath(
+        fileSystem,
+        normalizeSeparators(rawPath),
+        /* offsets= */ null,
+        userDir,
+        rootDir,
+        /* cachesAttributes= */ true);
+  }
+
+  /** Returns the cached attributes of the file, or null if there are none. */
+  BasicFileAttributes getCachedAttributes() {
+    return cachedAttributes;
+  }
+
+  void setCachedAttributes(BasicFileAttributes attributes) {
+    if (cachesAttributes) {
+      cachedAttributes = attributes;
+    }
+  }
+
+  void invalidateCachedAttributes() {
+    if (cachesAttributes) {
+      cachedAttributes = null;
+    }
   }
 
-  private static List<String> getFileNames(String rawTextPath) {
-    if (rawTextPath.isEmpty()) {
-      return Collections.singletonList("");
+  /** Removes redundant and trailing slashes, returning the input when there are none. */
+  private static String normalizeSeparators(String rawPath) {
+    int length = rawPath.length();
+    char previous = 0;
+    for (int i = 0; i < length; i++) {
+      char c = rawPath.charAt(i);
+      if (c == SEPARATOR_CHAR && previous == SEPARATOR_CHAR) {
+        return normalizeSeparators(rawPath, length, i - 1);
+      }
+      previous = c;
+    }
+    if (previous == SEPARATOR_CHAR && length > 1) {
+      return normalizeSeparators(rawPath, length, length - 1);
+    }
+    return rawPath;
+  }
+
+  private static String normalizeSeparators(String rawPath, int length, int offset) {
+    // Ignore trailing slashes.
+    while (length > 0 && rawPath.charAt(length - 1) == SEPARATOR_CHAR) {
+      length--;
+    }
+    if (length == 0) {
+      return SEPARATOR;
+    }
+    StringBuilder sb = new StringBuilder(length);
+    if (offset > 0) {
+      sb.append(rawPath, 0, offset);
     }
-    return stream(PATH_COMPONENT_SPLITERATOR.split(rawTextPath))
-        .filter(name -> !name.isEmpty())
-        .collect(Collectors.toUnmodifiableList());
+    char previous = 0;
+    for (int i = offset; i < length; i++) {
+      char c = rawPath.charAt(i);
+      if (c == SEPARATOR_CHAR && previous == SEPARATOR_CHAR) {
+        continue;
+      }
+      sb.append(c);
+      previous = c;
+    }
+    return sb.toString();
+  }
+
+  private boolean isEmpty() {
+    return pathText.isEmpty();
+  }
+
+  // Creates the offsets of the names; the empty path has a single, empty name.
+  private int[] offsets() {
+    int[] result = offsets;
+    if (result == null) {
+      int length = pathText.length();
+      int count = 0;
+      if (length == 0) {
+        count = 1;
+      } else {
+        for (int i = 0; i < length; i++) {
+          if (pathText.charAt(i) != SEPARATOR_CHAR
+              && (i == 0 || pathText.charAt(i - 1) == SEPARATOR_CHAR)) {
+            count++;
+          }
+        }
+      }
+      result = new int[count];
+      int name = 0;
+      for (int i = 0; i < length; i++) {
+        if (pathText.charAt(i) != SEPARATOR_CHAR
+            && (i == 0 || pathText.charAt(i - 1) == SEPARATOR_CHAR)) {
+          result[name++] = i;
+        }
+      }
+      // OK if two or more threads create the same offsets.
+      offsets = result;
+    }
+    return result;
+  }
+
+  // Offset of the end of the name at index.
+  private int nameEnd(int[] offsets, int index) {
+    return index == offsets.length - 1 ? pathText.length() : offsets[index + 1] - 1;
+  }
+
+  private boolean nameEquals(int index, DesugarUnixPath other, int otherIndex) {
+    int[] thisOffsets = offsets();
+    int[] otherOffsets = other.offsets();
+    int begin = thisOffsets[index];
+    int length = nameEnd(thisOffsets, index) - begin;
+    int otherBegin = otherOffsets[otherIndex];
+    int otherLength = other.nameEnd(otherOffsets, otherIndex) - otherBegin;
+    return length == otherLength
+        && pathText.regionMatches(begin, other.pathText, otherBegin, length);
   }
 
-  private static String getPathText(boolean isAbsolutePath, Collection<String> fileNames) {
-    return (isAbsolutePath ? SEPARATOR : "") + String.join(SEPARATOR, fileNames);
+  private boolean nameEquals(int index, String name) {
+    int[] offsets = offsets();
+    int begin = offsets[index];
+    int length = nameEnd(offsets, index) - begin;
+    return length == name.length() && pathText.startsWith(name, begin);
   }
 
   @Override
@@ -101,7 +236,7 @@ public class DesugarUnixPath implements Path {
 
   @Override
   public boolean isAbsolute() {
-    return isAbsolutePath;
+    return !isEmpty() && pathText.charAt(0) == SEPARATOR_CHAR;
   }
 
   @Override
@@ -119,46 +254,60 @@ public class DesugarUnixPath implements Path {
 
   @Override
   public DesugarUnixPath getFileName() {
-    return fileNames.isEmpty()
-        ? (isAbsolutePath ? null : this)
-        : new DesugarUnixPath(fileSystem, fileNames.get(getNameCount() - 1), userDir, rootDir);
+    int[] offsets = offsets();
+    int count = offsets.length;
+    if (count == 0) {
+      return null;
+    }
+    if (count == 1 && !isAbsolute()) {
+      return this;
+    }
+    return newPath(pathText.substring(offsets[count - 1]));
   }
 
   @Override
   public DesugarUnixPath getParent() {
-    int nameCount = getNameCount();
-    if (nameCount == 0 || (nameCount == 1 && !isAbsolutePath)) {
+    int[] offsets = offsets();
+    int count = offsets.length;
+    if (count == 0) {
       return null;
     }
-    StringBuilder pathBuilder = new StringBuilder();
-    if (isAbsolutePath) {
-      pathBuilder.append(SEPARATOR);
+    int length = offsets[count - 1] - 1;
+    if (length < 0) {
+      // A single relative name has no parent.
+      return null;
     }
-    String pathText = pathBuilder.append(subPathName(0, nameCount - 1)).toString();
-    return new DesugarUnixPath(fileSystem, pathText, userDir, rootDir);
+    return newPath(length == 0 ? SEPARATOR : pathText.substring(0, length));
   }
 
   @Override
   public int getNameCount() {
-    return fileNames.size();
+    return offsets().length;
   }
 
   @Override
   public DesugarUnixPath getName(int index) {
-    if (index < 0 || index >= getNameCount()) {
+    int[] offsets = offsets();
+    if (index < 0 || index >= offsets.length) {
       throw new IllegalArgumentException(
           String.format("Requested name for index (%d) is out of bound in \n%s.", index, this));
     }
-    return new DesugarUnixPath(fileSystem, fileNames.get(index), userDir, rootDir);
+    if (offsets.length == 1 && !isAbsolute()) {
+      return this;
+    }
+    return newPath(pathText.substring(offsets[index], nameEnd(offsets, index)));
   }
 
   @Override
   public DesugarUnixPath subpath(int beginIndex, int endIndex) {
-    return new DesugarUnixPath(fileSystem, subPathName(beginIndex, endIndex), userDir, rootDir);
-  }
-
-  private String subPathName(int beginIndex, int endIndex) {
-    return String.join(SEPARATOR, fileNames.subList(beginIndex, endIndex));
+    int[] offsets = offsets();
+    if (beginIndex < 0 || beginIndex >= offsets.length) {
+      throw new IllegalArgumentException("Invalid beginIndex: " + beginIndex);
+    }
+    if (endIndex > offsets.length || beginIndex >= endIndex) {
+      throw new IllegalArgumentException("Invalid endIndex: " + endIndex);
+    }
+    return newPath(pathText.substring(offsets[beginIndex], nameEnd(offsets, endIndex - 1)));
   }
 
   @Override
@@ -172,15 +321,16 @@ public class DesugarUnixPath implements Path {
     if (!(other instanceof DesugarUnixPath)) {
       return false;
     }
-    if (isAbsolute() != other.isAbsolute()) {
+    DesugarUnixPath that = (DesugarUnixPath) other;
+    if (isAbsolute() != that.isAbsolute()) {
       return false;
     }
-    int otherNameCount = other.getNameCount();
+    int otherNameCount = that.getNameCount();
     if (getNameCount() < otherNameCount) {
       return false;
     }
     for (int i = 0; i < otherNameCount; i++) {
-      if (!getName(i).equals(other.getName(i))) {
+      if (!nameEquals(i, that, i)) {
         return false;
       }
     }
@@ -198,16 +348,17 @@ public class DesugarUnixPath implements Path {
     if (!(other instanceof DesugarUnixPath)) {
       return false;
     }
-    if (other.isAbsolute()) {
-      return equals(other);
+    DesugarUnixPath that = (DesugarUnixPath) other;
+    if (that.isAbsolute()) {
+      return equals(that);
     }
-    int otherNameCount = other.getNameCount();
-    if (getNameCount() < otherNameCount) {
+    int otherNameCount = that.getNameCount();
+    int thisNameCount = getNameCount();
+    if (thisNameCount < otherNameCount) {
       return false;
     }
-    int thisNameCount = getNameCount();
     for (int i = otherNameCount - 1; i >= 0; i--) {
-      if (!getName(i - otherNameCount + thisNameCount).equals(other.getName(i))) {
+      if (!nameEquals(i - otherNameCount + thisNameCount, that, i)) {
         return false;
       }
     }
@@ -234,21 +385,51 @@ public class DesugarUnixPath implements Path {
 
   @Override
   public DesugarUnixPath normalize() {
-    ArrayDeque<String> normalizedFileNames = new ArrayDeque<>();
-    for (String fileName : fileNames) {
-      switch (fileName) {
-        case ".":
-          break;
-        case "..":
-          normalizedFileNames.removeLast();
-          break;
-        default:
-          normalizedFileNames.add(fileName);
-          break;
+    int count = getNameCount();
+    if (count == 0 || isEmpty()) {
+      return this;
+    }
+    boolean isAbsolutePath = isAbsolute();
+    // Index of the names kept, -1 for removed ones.
+    int[] kept = new int[count];
+    int keptCount = 0;
+    // Number of kept names that are not "..", which a later ".." can remove.
+    int removableCount = 0;
+    boolean modified = false;
+    for (int i = 0; i < count; i++) {
+      if (nameEquals(i, ".")) {
+        modified = true;
+      } else if (nameEquals(i, "..")) {
+        if (removableCount > 0) {
+          keptCount--;
+          removableCount--;
+          modified = true;
+        } else if (isAbsolutePath) {
+          // ".." at the root directory is the root directory.
+          modified = true;
+        } else {
+          kept[keptCount++] = i;
+        }
+      } else {
+        kept[keptCount++] = i;
+        removableCount++;
       }
     }
-    return new DesugarUnixPath(
-        fileSystem, getPathText(isAbsolutePath, normalizedFileNames), userDir, rootDir);
+    if (!modified) {
+      return this;
+    }
+    int[] offsets = offsets();
+    StringBuilder sb = new StringBuilder(pathText.length());
+    if (isAbsolutePath) {
+      sb.append(SEPARATOR_CHAR);
+    }
+    for (int i = 0; i < keptCount; i++) {
+      if (i > 0) {
+        sb.append(SEPARATOR_CHAR);
+      }
+      sb.append(pathText, offsets[kept[i]], nameEnd(offsets, kept[i]));
+    }
+    return newPath(sb.toString());
   }
 
   @Override
@@ -261,10 +442,24 @@ public class DesugarUnixPath implements Path {
               other, other.getFileSystem()));
     }
 
-    if (other.isAbsolute()) {
-      return (DesugarUnixPath) other;
+    DesugarUnixPath that = (DesugarUnixPath) other;
+    if (that.isAbsolute() || isEmpty()) {
+      return that;
     }
-    return new DesugarUnixPath(fileSystem, pathText + SEPARATOR + other, userDir, rootDir);
+    if (that.isEmpty()) {
+      return this;
+    }
+    // Both texts are normalized, so is their concatenation.
+    String resolved =
+        pathText.length() == 1 && isAbsolute()
+            ? SEPARATOR + that.pathText
+            : pathText + SEPARATOR + that.pathText;
+    return newPath(resolved);
+  }
+
+  @Override
+  public DesugarUnixPath resolve(String other) {
+    return resolve(new DesugarUnixPath(fileSystem, other, userDir, rootDir));
   }
 
   @Override
@@ -299,28 +494,44 @@ public class DesugarUnixPath implements Path {
       throw new IllegalArgumentException("'other' is different type of Path in absolute property.");
     }
 
-    List<String> otherFileNames = ((DesugarUnixPath) other).fileNames;
+    DesugarUnixPath that = (DesugarUnixPath) other;
+    if (isEmpty()) {
+      return that;
+    }
+    if (that.isEmpty()) {
+      // Relativize to the empty path by going up every name.
+      return newPath(parentReferences(getNameCount()));
+    }
 
-    int thisFileNameCount = fileNames.size();
-    int otherFileNameCount = otherFileNames.size();
+    int thisFileNameCount = getNameCount();
+    int otherFileNameCount = that.getNameCount();
 
     int i = 0;
-    while (i < thisFileNameCount
-        && i < otherFileNameCount
-        && fileNames.get(i).equals(otherFileNames.get(i))) {
+    while (i < thisFileNameCount && i < otherFileNameCount && nameEquals(i, that, i)) {
       i++;
     }
 
-    List<String> relativeFileNames = new ArrayList<>();
-    for (int j = i; j < thisFileNameCount; j++) {
-      relativeFileNames.add("..");
-    }
-    for (int j = i; j < otherFileNameCount; j++) {
-      relativeFileNames.add(otherFileNames.get(j));
+    String parents = parentReferences(thisFileNameCount - i);
+    if (i == otherFileNameCount) {
+      return newPath(parents);
     }
+    String remainder = that.pathText.substring(that.offsets()[i]);
+    return newPath(parents.isEmpty() ? remainder : parents + SEPARATOR + remainder);
+  }
 
-    return new DesugarUnixPath(
-        fileSystem, /* isAbsolutePath= */ false, relativeFileNames, userDir, rootDir);
+  // Returns count ".." names joined by separators.
+  private static String parentReferences(int count) {
+    if (count == 0) {
+      return "";
+    }
+    StringBuilder sb = new StringBuilder(3 * count - 1);
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        sb.append(SEPARATOR_CHAR);
+      }
+      sb.append("..");
+    }
+    return sb.toString();
   }
 
   @Override
@@ -369,6 +580,12 @@ public class DesugarUnixPath implements Path {
   @Override
   public WatchKey register(WatchService watcher, Kind<?>[] events, Modifier... modifiers)
       throws IOException {
-    throw new UnsupportedOperationException("Watch Service is not supported");
+    if (watcher == null) {
+      throw new NullPointerException();
+    }
+    if (!(watcher instanceof DesugarPollingWatchService)) {
+      throw new ProviderMismatchException();
+    }
+    return ((DesugarPollingWatchService) watcher).register(this, events, modifiers);
   }
 }
@@ -59,6 +59,12 @@ public final class PathConversions {
       this.delegate = delegate;
     }
 
+    // Operations that return their receiver, such as normalize() on a normalized path, stay on
+    // this wrapper instead of converting again.
+    private j$.nio.file.Path wrap(java.nio.file.Path result) {
+      return result == delegate ? this : encode(result);
+    }
+
     @Override
     public j$.nio.file.FileSystem getFileSystem() {
       return FileSystemConversions.encode(delegate.getFileSystem());
@@ -71,17 +77,17 @@ public final class PathConversions {
 
     @Override
     public j$.nio.file.Path getRoot() {
-      return encode(delegate.getRoot());
+      return wrap(delegate.getRoot());
     }
 
     @Override
     public j$.nio.file.Path getFileName() {
-      return encode(delegate.getFileName());
+      return wrap(delegate.getFileName());
     }
 
     @Override
     public j$.nio.file.Path getParent() {
-      return encode(delegate.getParent());
+      return wrap(delegate.getParent());
     }
 
     @Override
@@ -91,12 +97,12 @@ public final class PathConversions {
 
     @Override
     public j$.nio.file.Path getName(int index) {
-      return encode(delegate.getName(index));
+      return wrap(delegate.getName(index));
     }
 
     @Override
     public j$.nio.file.Path subpath(int beginIndex, int endIndex) {
-      return encode(delegate.subpath(beginIndex, endIndex));
+      return wrap(delegate.subpath(beginIndex, endIndex));
     }
 
     @Override
@@ -121,32 +127,32 @@ public final class PathConversions {
 
     @Override
     public j$.nio.file.Path normalize() {
-      return encode(delegate.normalize());
+      return wrap(delegate.normalize());
     }
 
     @Override
     public j$.nio.file.Path resolve(j$.nio.file.Path other) {
-      return encode(delegate.resolve(decode(other)));
+      return wrap(delegate.resolve(decode(other)));
     }
 
     @Override
     public j$.nio.file.Path resolve(String other) {
-      return encode(delegate.resolve(other));
+      return wrap(delegate.resolve(other));
     }
 
     @Override
     public j$.nio.file.Path resolveSibling(j$.nio.file.Path other) {
-      return encode(delegate.resolveSibling(decode(other)));
+      return wrap(delegate.resolveSibling(decode(other)));
     }
 
     @Override
     public j$.nio.file.Path resolveSibling(String other) {
-      return encode(delegate.resolveSibling(other));
+      return wrap(delegate.resolveSibling(other));
     }
 
     @Override
     public j$.nio.file.Path relativize(j$.nio.file.Path other) {
-      return encode(delegate.relativize(decode(other)));
+      return wrap(delegate.relativize(decode(other)));
     }
 
     @Override
@@ -156,13 +162,13 @@ public final class PathConversions {
 
     @Override
     public j$.nio.file.Path toAbsolutePath() {
-      return encode(delegate.toAbsolutePath());
+      return wrap(delegate.toAbsolutePath());
     }
 
     @Override
     public j$.nio.file.Path toRealPath(j$.nio.file.LinkOption... options) throws IOException {
       try {
-        return encode(delegate.toRealPath(LinkOptionConversions.decode(options)));
+        return wrap(delegate.toRealPath(LinkOptionConversions.decode(options)));
       } catch (IOException e) {
         throw IOExceptionConversions.encodeChecked(e);
       }
@@ -251,6 +257,12 @@ public final class PathConversions {
       this.delegate = delegate;
     }
 
+    // Operations that return their receiver, such as normalize() on a normalized path, stay on
+    // this wrapper instead of converting again.
+    private java.nio.file.Path wrap(j$.nio.file.Path result) {
+      return result == delegate ? this : decode(result);
+    }
+
     @Override
     public java.nio.file.FileSystem getFileSystem() {
       return FileSystemConversions.decode(delegate.getFileSystem());
@@ -263,17 +275,17 @@ public final class PathConversions {
 
     @Override
     public java.nio.file.Path getRoot() {
-      return decode(delegate.getRoot());
+      return wrap(delegate.getRoot());
     }
 
     @Override
     public java.nio.file.Path getFileName() {
-      return decode(delegate.getFileName());
+      return wrap(delegate.getFileName());
     }
 
     @Override
     public java.nio.file.Path getParent() {
-      return decode(delegate.getParent());
+      return wrap(delegate.getParent());
     }
 
     @Override
@@ -283,12 +295,12 @@ public final class PathConversions {
 
     @Override
     public java.nio.file.Path getName(int index) {
-      return decode(delegate.getName(index));
+      return wrap(delegate.getName(index));
     }
 
     @Override
     public java.nio.file.Path subpath(int beginIndex, int endIndex) {
-      return decode(delegate.subpath(beginIndex, endIndex));
+      return wrap(delegate.subpath(beginIndex, endIndex));
     }
 
     @Override
@@ -313,32 +325,32 @@ public final class PathConversions {
 
     @Override
     public java.nio.file.Path normalize() {
-      return decode(delegate.normalize());
+      return wrap(delegate.normalize());
     }
 
     @Override
     public java.nio.file.Path resolve(java.nio.file.Path other) {
-      return decode(delegate.resolve(encode(other)));
+      return wrap(delegate.resolve(encode(other)));
     }
 
     @Override
     public java.nio.file.Path resolve(String other) {
-      return decode(delegate.resolve(other));
+      return wrap(delegate.resolve(other));
     }
 
     @Override
     public java.nio.file.Path resolveSibling(java.nio.file.Path other) {
-      return decode(delegate.resolveSibling(encode(other)));
+      return wrap(delegate.resolveSibling(encode(other)));
     }
 
     @Override
     public java.nio.file.Path resolveSibling(String other) {
-      return decode(delegate.resolveSibling(other));
+      return wrap(delegate.resolveSibling(other));
     }
 
     @Override
     public java.nio.file.Path relativize(java.nio.file.Path other) {
-      return decode(delegate.relativize(encode(other)));
+      return wrap(delegate.relativize(encode(other)));
     }
 
     @Override
@@ -348,12 +360,12 @@ public final class PathConversions {
 
     @Override
     public java.nio.file.Path toAbsolutePath() {
-      return decode(delegate.toAbsolutePath());
+      return wrap(delegate.toAbsolutePath());
     }
 
     @Override
     public java.nio.file.Path toRealPath(java.nio.file.LinkOption... options) throws IOException {
-      return decode(delegate.toRealPath(LinkOptionConversions.encode(options)));
+      return wrap(delegate.toRealPath(LinkOptionConversions.encode(options)));
     }
 
     @Override
@@ -20,26 +20,183 @@
  */
 package java.lang;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 /** The runtime library used for string concatenation. */
 public class DesugarStringConcats {
 
+  private static final char TAG_ARG = '\1';
+  private static final char TAG_CONST = '\2';
+
+  /**
+   * Compiled recipes keyed by the recipe text. Recipes are compile-time constants of the
+   * concatenation call sites, so the set of keys is bounded by the program's call sites.
+   */
+  private static final ConcurrentHashMap<String, Recipe> RECIPES = new ConcurrentHashMap<>();
+
   /**
    * Concatenate strings in a way compliant with the Javadoc for {@link
    * java.lang.invoke.StringConcatFactory#makeConcatWithConstants}.
    */
   public static String concat(Object[] runtimeTexts, String recipe, Object[] constants) {
-    StringBuilder stringBuilder = new StringBuilder();
-    for (int i = 0, runTimeTextIndex = 0, constantIndex = 0; i < recipe.length(); i++) {
-      char c = recipe.charAt(i);
-      if (c == '\1') {
-        stringBuilder.append(runtimeTexts[runTimeTextIndex++]);
-      } else if (c == '\2') {
-        stringBuilder.append(constants[constantIndex++]);
-      } else {
-        stringBuilder.append(c);
-      }
-    }
-    return stringBuilder.toString();
+    Recipe compiled = RECIPES.get(recipe);
+    if (compiled == null) {
+      compiled = Recipe.compile(recipe);
+      Recipe existing = RECIPES.putIfAbsent(recipe, compiled);
+      if (existing != null) {
+        compiled = existing;
+      }
+    }
+    return compiled.apply(runtimeTexts, constants);
+  }
+
+  /**
+   * A recipe parsed into literal segments and slots: slot {@code i} is preceded by {@code
+   * literals[i]}, and {@code literals[slotCount]} trails the last slot.
+   */
+  static final class Recipe {
+    private final String[] literals;
+    private final boolean[] constantSlots;
+    private final int literalLength;
+
+    private Recipe(String[] literals, boolean[] constantSlots, int literalLength) {
+      this.literals = literals;
+      this.constantSlots = constantSlots;
+      this.literalLength = literalLength;
+    }
+
+    static Recipe compile(String recipe) {
+      int slotCount = 0;
+      for (int i = 0; i < recipe.length(); i++) {
+        char c = recipe.charAt(i);
+        if (c == TAG_ARG || c == TAG_CONST) {
+          slotCount++;
+        }
+      }
+      String[] literals = new String[slotCount + 1];
+      boolean[] constantSlots = new boolean[slotCount];
+      int slot = 0;
+      int segmentStart = 0;
+      for (int i = 0; i < recipe.length(); i++) {
+        char c = recipe.charAt(i);
+        if (c == TAG_ARG || c == TAG_CONST) {
+          literals[slot] = recipe.substring(segmentStart, i);
+          constantSlots[slot] = c == TAG_CONST;
+          slot++;
+          segmentStart = i + 1;
+        }
+      }
+      literals[slotCount] = recipe.substring(segmentStart);
+      return new Recipe(literals, constantSlots, recipe.length() - slotCount);
+    }
+
+    String apply(Object[] runtimeTexts, Object[] constants) {
+      int slotCount = constantSlots.length;
+      if (slotCount == 0) {
+        return literals[0];
+      }
+      // First pass: resolve every slot value in recipe order and compute the exact result length.
+      // Strings and boxed primitives other than floating point values are appended as-is later,
+      // any other value is converted to a string exactly once here.
+      Object[] values = new Object[slotCount];
+      // Summed as a long, which the at most Integer.MAX_VALUE slots of int lengths cannot overflow.
+      long length = literalLength;
+      for (int i = 0, runTimeTextIndex = 0, constantIndex = 0; i < slotCount; i++) {
+        Object value =
+            constantSlots[i] ? constants[constantIndex++] : runtimeTexts[runTimeTextIndex++];
+        if (value instanceof String) {
+          length += ((String) value).length();
+        } else if (value instanceof Integer) {
+          length += stringSize((Integer) value);
+        } else if (value instanceof Long) {
+          length += stringSize((Long) value);
+        } else if (value instanceof Character) {
+          length += 1;
+        } else if (value instanceof Boolean) {
+          length += ((Boolean) value) ? 4 : 5;
+        } else if (value instanceof Short || value instanceof Byte) {
+          length += stringSize(((Number) value).intValue());
+        } else {
+          // Like StringConcatFactory, a toString() returning null is appended as "null".
+          String text = value == null ? null : value.toString();
+          if (text == null) {
+            text = "null";
+          }
+          length += text.length();
+          value = text;
+        }
+        values[i] = value;
+      }
+      if (length > Integer.MAX_VALUE) {
+        // Same error as StringConcatFactory, rather than a NegativeArraySizeException below.
+        throw new OutOfMemoryError("Overflow: String length out of range");
+      }
+      if (slotCount == 1 && literalLength == 0 && values[0] instanceof String) {
+        return (String) values[0];
+      }
+
+      // Second pass: fill a builder that never grows.
+      StringBuilder stringBuilder = new StringBuilder((int) length);
+      for (int i = 0; i < slotCount; i++) {
+        String literal = literals[i];
+        if (!literal.isEmpty()) {
+          stringBuilder.append(literal);
+        }
+        Object value = values[i];
+        if (value instanceof String) {
+          stringBuilder.append((String) value);
+        } else if (value instanceof Integer) {
+          stringBuilder.append(((Integer) value).intValue());
+        } else if (value instanceof Long) {
+          stringBuilder.append(((Long) value).longValue());
+        } else if (value instanceof Character) {
+          stringBuilder.append(((Character) value).charValue());
+        } else if (value instanceof Boolean) {
+          stringBuilder.append(((Boolean) value).booleanValue());
+        } else {
+          stringBuilder.append(((Number) value).intValue());
+        }
+      }
+      String trailing = literals[slotCount];
+      if (!trailing.isEmpty()) {
+        stringBuilder.append(trailing);
+      }
+      return stringBuilder.toString();
+    }
+  }
+
+  // for desugar: copy of the package-private Integer.stringSize, not available at runtime.
+  static int stringSize(int x) {
+    int d = 1;
+    if (x >= 0) {
+      d = 0;
+      x = -x;
+    }
+    int p = -10;
+    for (int i = 1; i < 10; i++) {
+      if (x > p) {
+        return i + d;
+      }
+      p = 10 * p;
+    }
+    return 10 + d;
+  }
+
+  // for desugar: copy of the package-private Long.stringSize, not available at runtime.
+  static int stringSize(long x) {
+    int d = 1;
+    if (x >= 0) {
+      d = 0;
+      x = -x;
+    }
+    long p = -10;
+    for (int i = 1; i < 19; i++) {
+      if (x > p) {
+        return i + d;
+      }
+      p = 10 * p;
+    }
+    return 19 + d;
   }
 
   private DesugarStringConcats() {}
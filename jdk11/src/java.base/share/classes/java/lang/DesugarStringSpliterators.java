@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2021 Google LLC
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Google designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Google in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package java.lang;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Spliterators over the lines and the chars of a {@link String}, for the desugared String methods
+ * that cannot use the spliterators of StringLatin1 and StringUTF16. They walk the string by index,
+ * without copying its characters.
+ */
+public final class DesugarStringSpliterators {
+
+  private DesugarStringSpliterators() {}
+
+  /** Returns the stream of {@link String#lines()}. */
+  public static Stream<String> lines(String value) {
+    return StreamSupport.stream(new LinesSpliterator(value, 0, value.length()), false);
+  }
+
+  /** Returns the stream of {@link String#chars()}. */
+  public static IntStream chars(String value) {
+    return StreamSupport.intStream(new CharsSpliterator(value, 0, value.length()), false);
+  }
+
+  /** A spliterator over the lines of a string, like StringLatin1.LinesSpliterator. */
+  static final class LinesSpliterator implements Spliterator<String> {
+    private final String value;
+    private int index; // current index, modified on advance/split
+    private final int fence; // one past last index
+
+    LinesSpliterator(String value, int start, int fence) {
+      this.value = value;
+      this.index = start;
+      this.fence = fence;
+    }
+
+    private int indexOfLineSeparator(int start) {
+      for (int current = start; current < fence; current++) {
+        char ch = value.charAt(current);
+        if (ch == '\n' || ch == '\r') {
+          return current;
+        }
+      }
+      return fence;
+    }
+
+    private int skipLineSeparator(int start) {
+      if (start < fence) {
+        if (value.charAt(start) == '\r') {
+          int next = start + 1;
+          if (next < fence && value.charAt(next) == '\n') {
+            return next + 1;
+          }
+        }
+        return start + 1;
+      }
+      return fence;
+    }
+
+    private String next() {
+      int start = index;
+      int end = indexOfLineSeparator(start);
+      index = skipLineSeparator(end);
+      return value.substring(start, end);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+      if (action == null) {
+        throw new NullPointerException("tryAdvance action missing");
+      }
+      if (index != fence) {
+        action.accept(next());
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+      if (action == null) {
+        throw new NullPointerException("forEachRemaining action missing");
+      }
+      while (index != fence) {
+        action.accept(next());
+      }
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+      int half = (fence + index) >>> 1;
+      int mid = skipLineSeparator(indexOfLineSeparator(half));
+      if (mid < fence) {
+        int start = index;
+        index = mid;
+        return new LinesSpliterator(value, start, mid);
+      }
+      return null;
+    }
+
+    @Override
+    public long estimateSize() {
+      return fence - index + 1;
+    }
+
+    @Override
+    public int characteristics() {
+      return Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL;
+    }
+  }
+
+  /** A spliterator over the chars of a string, like StringLatin1.CharsSpliterator. */
+  static final class CharsSpliterator implements Spliterator.OfInt {
+    private final String value;
+    private int index; // current index, modified on advance/split
+    private final int fence; // one past last index
+
+    CharsSpliterator(String value, int origin, int fence) {
+      this.value = value;
+      this.index = origin;
+      this.fence = fence;
+    }
+
+    @Override
+    public OfInt trySplit() {
+      int lo = index;
+      int mid = (lo + fence) >>> 1;
+      return (lo >= mid) ? null : new CharsSpliterator(value, lo, index = mid);
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+      if (action == null) {
+        throw new NullPointerException();
+      }
+      int i = index;
+      int hi = fence;
+      index = hi;
+      for (; i < hi; i++) {
+        action.accept(value.charAt(i));
+      }
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+      if (action == null) {
+        throw new NullPointerException();
+      }
+      int i = index;
+      if (i < fence) {
+        action.accept(value.charAt(i));
+        index++;
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public long estimateSize() {
+      return (long) (fence - index);
+    }
+
+    @Override
+    public int characteristics() {
+      return Spliterator.ORDERED
+          | Spliterator.SIZED
+          | Spliterator.SUBSIZED
+          | Spliterator.IMMUTABLE;
+    }
+  }
+}
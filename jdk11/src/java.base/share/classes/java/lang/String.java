@@ -33,6 +33,7 @@ import java.lang.annotation.Native;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.Formatter;
 import java.util.List;
@@ -2397,12 +2398,23 @@ public final class String
     public static String join(CharSequence delimiter, CharSequence... elements) {
         Objects.requireNonNull(delimiter);
         Objects.requireNonNull(elements);
+        // For desugar: Join in two passes into one exact-size buffer, rather
+        // than through a StringJoiner that grows its storage.
         // Number of elements not likely worth Arrays.stream overhead.
-        StringJoiner joiner = new StringJoiner(delimiter);
-        for (CharSequence cs: elements) {
-            joiner.add(cs);
+        // StringJoiner joiner = new StringJoiner(delimiter);
+        // for (CharSequence cs: elements) {
+        //     joiner.add(cs);
+        // }
+        // return joiner.toString();
+        int size = elements.length;
+        String[] elems = new String[size];
+        long len = 0;
+        for (int i = 0; i < size; i++) {
+            String elem = String.valueOf(elements[i]);
+            len += elem.length();
+            elems[i] = elem;
         }
-        return joiner.toString();
+        return join(delimiter.toString(), elems, size, len);
     }
 
     /**
@@ -2444,11 +2456,59 @@ public final class String
             Iterable<? extends CharSequence> elements) {
         Objects.requireNonNull(delimiter);
         Objects.requireNonNull(elements);
-        StringJoiner joiner = new StringJoiner(delimiter);
+        // For desugar: Join in two passes into one exact-size buffer, rather
+        // than through a StringJoiner that grows its storage.
+        // StringJoiner joiner = new StringJoiner(delimiter);
+        // for (CharSequence cs: elements) {
+        //     joiner.add(cs);
+        // }
+        // return joiner.toString();
+        String[] elems = new String[elements instanceof Collection
+            ? ((Collection<?>) elements).size() : 8];
+        int size = 0;
+        long len = 0;
         for (CharSequence cs: elements) {
-            joiner.add(cs);
+            if (size == elems.length) {
+                elems = Arrays.copyOf(elems, Math.max(8, 2 * size));
+            }
+            String elem = String.valueOf(cs);
+            len += elem.length();
+            elems[size++] = elem;
         }
-        return joiner.toString();
+        return join(delimiter.toString(), elems, size, len);
+    }
+
+    /**
+     * For desugar: Returns the first {@code size} elements separated by the
+     * delimiter, copied once into a buffer of the exact length, like the
+     * String.join of later JDKs that backs StringJoiner.
+     *
+     * @param len the sum of the lengths of the elements
+     */
+    @DesugarSupportedApiHelper
+    static String join(String delimiter, String[] elements, int size, long len) {
+        if (size == 0) {
+            return "";
+        }
+        if (size == 1) {
+            return elements[0];
+        }
+        len += (long) delimiter.length() * (size - 1);
+        if (len > Integer.MAX_VALUE) {
+            throw new OutOfMemoryError("Requested string length exceeds VM limit");
+        }
+        char[] chars = new char[(int) len];
+        String first = elements[0];
+        first.getChars(0, first.length(), chars, 0);
+        int k = first.length();
+        for (int i = 1; i < size; i++) {
+            delimiter.getChars(0, delimiter.length(), chars, k);
+            k += delimiter.length();
+            String elem = elements[i];
+            elem.getChars(0, elem.length(), chars, k);
+            k += elem.length();
+        }
+        return new String(chars);
     }
 
     /**
@@ -2681,25 +2741,16 @@ public final class String
     @DesugarSupportedApi
     public String strip() {
         // For desugar: Avoid StringLatin1 and StringUTF16 dependencies.
-        if (isEmpty()) {
-            return this;
-        }
-        if (!Character.isWhitespace(charAt(0)) && !Character.isWhitespace(length() - 1)) {
-            return this;
-        }
-        StringBuilder sb = new StringBuilder();
-        int i = 0;
-        while (Character.isWhitespace(charAt(i))) {
-            i++;
-        }
-        int j = length() - 1;
-        while (Character.isWhitespace(charAt(j))) {
-            j--;
-        }
-        return substring(i, j + 1);
         // String ret = isLatin1() ? StringLatin1.strip(value)
         //     : StringUTF16.strip(value);
         // return ret == null ? this : ret;
+        int length = length();
+        int left = indexOfNonWhitespace();
+        if (left == length) {
+            return "";
+        }
+        int right = lastIndexOfNonWhitespace();
+        return (left > 0 || right < length) ? substring(left, right) : this;
     }
 
     /**
@@ -2732,21 +2783,8 @@ public final class String
         // String ret = isLatin1() ? StringLatin1.stripLeading(value)
         //                         : StringUTF16.stripLeading(value);
         // return ret == null ? this : ret;
-
-        if (isEmpty()) {
-            return this;
-        }
-        if (!Character.isWhitespace(charAt(0))) {
-            return this;
-        }
-        int i = 0;
-        while (Character.isWhitespace(charAt(i))) {
-            i++;
-        }
-        return substring(i);
-        // String ret = isLatin1() ? StringLatin1.strip(value)
-        //     : StringUTF16.strip(value);
-        // return ret == null ? this : ret;
+        int left = indexOfNonWhitespace();
+        return left == 0 ? this : substring(left);
     }
 
     /**
@@ -2776,21 +2814,11 @@ public final class String
     @DesugarSupportedApi
     public String stripTrailing() {
         // For desugar: Avoid StringLatin1 and StringUTF16 dependencies.
-        if (isEmpty()) {
-            return this;
-        }
-        if (!Character.isWhitespace(length() - 1)) {
-            return this;
-        }
-        int j = length() - 1;
-        while (Character.isWhitespace(charAt(j))) {
-            j--;
-        }
-        return substring(0, j + 1);
-
         // String ret = isLatin1() ? StringLatin1.stripTrailing(value)
         //                         : StringUTF16.stripTrailing(value);
         // return ret == null ? this : ret;
+        int right = lastIndexOfNonWhitespace();
+        return right == length() ? this : substring(0, right);
     }
 
     /**
@@ -2808,22 +2836,72 @@ public final class String
      */
     @DesugarSupportedApi
     public boolean isBlank() {
-        // For desugar: Avoid StringLatin1 and StringUTF16 dependencies.
-        // return indexOfNonWhitespace() == length();
-        for (char c : toCharArray()) {
-            if (!Character.isWhitespace(c)) {
-                return false;
+        return indexOfNonWhitespace() == length();
+    }
+
+    // For desugar: The ASCII characters that are white space according to
+    // Character.isWhitespace, as a bit mask indexed by character. All of them
+    // are below 64.
+    private static final long ASCII_WHITESPACE_MASK =
+        1L << '\t' | 1L << '\n' | 1L << '\u000B' | 1L << '\f' | 1L << '\r'
+            | 1L << '\u001C' | 1L << '\u001D' | 1L << '\u001E' | 1L << '\u001F'
+            | 1L << ' ';
+
+    @DesugarSupportedApiHelper
+    private int indexOfNonWhitespace() {
+        // For desugar: Avoid StringLatin1 and StringUTF16 dependencies, scan
+        // the chars in place and look up ASCII chars in a bit mask.
+        // if (isLatin1()) {
+        //     return StringLatin1.indexOfNonWhitespace(value);
+        // } else {
+        //     return StringUTF16.indexOfNonWhitespace(value);
+        // }
+        int length = length();
+        int left = 0;
+        while (left < length) {
+            char ch = charAt(left);
+            if (ch < 128) {
+                if (!isAsciiWhitespace(ch)) {
+                    break;
+                }
+                left++;
+            } else {
+                int codepoint = codePointAt(left);
+                if (!Character.isWhitespace(codepoint)) {
+                    break;
+                }
+                left += Character.charCount(codepoint);
             }
         }
-        return true;
+        return left;
     }
 
-    private int indexOfNonWhitespace() {
-        if (isLatin1()) {
-            return StringLatin1.indexOfNonWhitespace(value);
-        } else {
-            return StringUTF16.indexOfNonWhitespace(value);
+    @DesugarSupportedApiHelper
+    private int lastIndexOfNonWhitespace() {
+        // For desugar: The counterpart of indexOfNonWhitespace, returns the
+        // index after the last char that is not white space.
+        int right = length();
+        while (0 < right) {
+            char ch = charAt(right - 1);
+            if (ch < 128) {
+                if (!isAsciiWhitespace(ch)) {
+                    break;
+                }
+                right--;
+            } else {
+                int codepoint = codePointBefore(right);
+                if (!Character.isWhitespace(codepoint)) {
+                    break;
+                }
+                right -= Character.charCount(codepoint);
+            }
         }
+        return right;
+    }
+
+    @DesugarSupportedApiHelper
+    private static boolean isAsciiWhitespace(char ch) {
+        return ch < 64 && ((ASCII_WHITESPACE_MASK >>> ch) & 1L) != 0;
     }
 
     /**
@@ -2861,8 +2939,7 @@ public final class String
         // For desugar: Avoid StringLatin1 and StringUTF16 dependencies.
         // return isLatin1() ? StringLatin1.lines(value)
         //                   : StringUTF16.lines(value);
-
-        return Arrays.stream(split("\n"));
+        return DesugarStringSpliterators.lines(this);
     }
 
     /**
@@ -2891,11 +2968,7 @@ public final class String
         //     isLatin1() ? new StringLatin1.CharsSpliterator(value, Spliterator.IMMUTABLE)
         //                : new StringUTF16.CharsSpliterator(value, Spliterator.IMMUTABLE),
         //     false);
-        IntStream.Builder builder = IntStream.builder();
-        for (char c : toCharArray()) {
-            builder.add(c);
-        }
-        return builder.build();
+        return DesugarStringSpliterators.chars(this);
     }
 
 
@@ -28,14 +28,14 @@ import sun.nio.cs.ISO_8859_1;
 import sun.nio.cs.UTF_8;
 import sun.nio.cs.US_ASCII;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
-import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.Spliterator;
@@ -59,10 +59,13 @@ import java.util.function.Consumer;
  * bytes.
  *
  * <p>
- * Traversing will create a buffered reader, derived from the file channel, for
- * the range of bytes of the file.  The lines are then read from that buffered
- * reader.  Once traversing commences no further splitting can be performed and
- * the reference to the mapped byte buffer will be set to null.
+ * Traversing will read the range of bytes of the file from the file channel
+ * into a byte array that is reused for the whole traversal.  The lines are
+ * found by scanning that array for line feed characters, and each line is
+ * decoded directly from its range of bytes, without a decoder if all of its
+ * bytes are ASCII or the charset is ISO-8859-1.  Once traversing commences no
+ * further splitting can be performed and the reference to the mapped byte
+ * buffer will be set to null.
  */
 final class FileChannelLinesSpliterator implements Spliterator<String> {
 
@@ -78,6 +81,10 @@ final class FileChannelLinesSpliterator implements Spliterator<String> {
         SUPPORTED_CHARSET_NAMES.add("US-ASCII");
     }
 
+    // Initial size of the array the bytes of the file are read into, the array
+    // grows to hold lines that are longer than that
+    private static final int BUFFER_SIZE = 8192;
+
     private final FileChannel fc;
     private final Charset cs;
     private int index;
@@ -86,7 +93,15 @@ final class FileChannelLinesSpliterator implements Spliterator<String> {
     // Null before first split, non-null when splitting, null when traversing
     private ByteBuffer buffer;
     // Non-null when traversing
-    private BufferedReader reader;
+    private byte[] bytes;
+    private ByteBuffer bytesBuffer;
+    // The bytes read from the channel and not yet returned as lines
+    private int start;
+    private int end;
+    // True if the last line ended with a '\r', a following '\n' is skipped
+    private boolean skipLF;
+    // Created for the first line that is not made of ASCII bytes only
+    private CharsetDecoder decoder;
 
     FileChannelLinesSpliterator(FileChannel fc, Charset cs, int index, int fence) {
         this.fc = fc;
@@ -122,65 +137,93 @@ final class FileChannelLinesSpliterator implements Spliterator<String> {
         }
     }
 
-    private BufferedReader getBufferedReader() {
-        /**
-         * A readable byte channel that reads bytes from an underlying
-         * file channel over a specified range.
-         */
-        ReadableByteChannel rrbc = new ReadableByteChannel() {
-            @Override
-            public int read(ByteBuffer dst) throws IOException {
-                int bytesToRead = fence - index;
-                if (bytesToRead == 0)
-                    return -1;
-
-                int bytesRead;
-                if (bytesToRead < dst.remaining()) {
-                    // The number of bytes to read is less than remaining
-                    // bytes in the buffer
-                    // Snapshot the limit, reduce it, read, then restore
-                    int oldLimit = dst.limit();
-                    dst.limit(dst.position() + bytesToRead);
-                    bytesRead = fc.read(dst, index);
-                    dst.limit(oldLimit);
-                } else {
-                    bytesRead = fc.read(dst, index);
-                }
-                if (bytesRead == -1) {
-                    index = fence;
-                    return bytesRead;
-                }
-
-                index += bytesRead;
-                return bytesRead;
-            }
+    // Reads more bytes of the range, keeping the unconsumed ones, and returns
+    // false if there are none left to read
+    private boolean fill() throws IOException {
+        int bytesToRead = fence - index;
+        if (bytesToRead == 0)
+            return false;
 
-            @Override
-            public boolean isOpen() {
-                return fc.isOpen();
-            }
+        if (start > 0) {
+            System.arraycopy(bytes, start, bytes, 0, end - start);
+            end -= start;
+            start = 0;
+        } else if (end == bytes.length) {
+            // A line longer than the array
+            bytes = Arrays.copyOf(bytes, bytes.length << 1);
+            bytesBuffer = ByteBuffer.wrap(bytes);
+        }
+        bytesBuffer.limit(end + Math.min(bytesToRead, bytes.length - end));
+        bytesBuffer.position(end);
+        int bytesRead = fc.read(bytesBuffer, index);
+        if (bytesRead == -1) {
+            index = fence;
+            return false;
+        }
 
-            @Override
-            public void close() throws IOException {
-                fc.close();
-            }
-        };
-        return new BufferedReader(Channels.newReader(rrbc, cs.newDecoder(), -1));
+        index += bytesRead;
+        end += bytesRead;
+        return true;
     }
 
     private String readLine() {
-        if (reader == null) {
-            reader = getBufferedReader();
+        if (bytes == null) {
+            bytes = new byte[Math.max(1, Math.min(BUFFER_SIZE, fence - index))];
+            bytesBuffer = ByteBuffer.wrap(bytes);
             buffer = null;
         }
 
         try {
-            return reader.readLine();
+            if (skipLF) {
+                if (start == end && !fill())
+                    return null;
+                skipLF = false;
+                if (bytes[start] == '\n')
+                    start++;
+            }
+
+            int i = start;
+            for (;;) {
+                for (; i < end; i++) {
+                    byte c = bytes[i];
+                    if (c == '\n' || c == '\r') {
+                        String line = decode(start, i);
+                        start = i + 1;
+                        skipLF = (c == '\r');
+                        return line;
+                    }
+                }
+                // Resume the scan where it stopped after the unconsumed
+                // bytes were moved to the beginning of the array
+                i -= start;
+                if (!fill()) {
+                    if (start == end)
+                        return null;
+                    String line = decode(start, end);
+                    start = end;
+                    return line;
+                }
+            }
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
+    @SuppressWarnings("deprecation")
+    private String decode(int from, int to) throws CharacterCodingException {
+        if (!"ISO-8859-1".equals(cs.name())) {
+            for (int i = from; i < to; i++) {
+                if (bytes[i] < 0) {
+                    if (decoder == null)
+                        decoder = cs.newDecoder();
+                    return decoder.decode(ByteBuffer.wrap(bytes, from, to - from)).toString();
+                }
+            }
+        }
+        // ASCII or ISO-8859-1 bytes are the values of their characters
+        return new String(bytes, 0, from, to - from);
+    }
+
     private ByteBuffer getMappedByteBuffer() {
         // TODO can the mapped byte buffer be explicitly unmapped?
         // It's possible, via a shared-secret mechanism, when either
@@ -199,7 +242,7 @@ final class FileChannelLinesSpliterator implements Spliterator<String> {
     @Override
     public Spliterator<String> trySplit() {
         // Cannot split after partial traverse
-        if (reader != null)
+        if (bytes != null)
             return null;
 
         ByteBuffer b;
@@ -219,6 +219,116 @@ public final class DateTimeFormatterBuilder {
         //                  convertStyle(dateStyle), chrono.getCalendarType(),
         //                  CalendarDataUtility.findRegionOverride(locale));
         // return pattern;
+        return localizedPattern(dateStyle, timeStyle, chrono, locale).pattern;
+    }
+
+    /**
+     * For desugar: The maximum number of entries of the localized pattern cache. It is cleared
+     * when full, the patterns used by an application usually fit in well below this.
+     */
+    private static final int LOCALIZED_PATTERN_CACHE_LIMIT = 256;
+
+    /**
+     * For desugar: Cache of localized patterns and of their formatters, keyed by chronology,
+     * locale and styles. Creating a java.text.DateFormat and transforming its pattern is much
+     * slower than a lookup.
+     */
+    private static final ConcurrentMap<LocalizedPatternKey, LocalizedPattern> LOCALIZED_PATTERN_CACHE =
+            new ConcurrentHashMap<>(16, 0.75f, 2);
+
+    /**
+     * For desugar: The key of the localized pattern cache, compared without building a string.
+     */
+    private static final class LocalizedPatternKey {
+        private final FormatStyle dateStyle;
+        private final FormatStyle timeStyle;
+        private final Chronology chrono;
+        private final Locale locale;
+
+        LocalizedPatternKey(FormatStyle dateStyle, FormatStyle timeStyle, Chronology chrono,
+                Locale locale) {
+            this.dateStyle = dateStyle;
+            this.timeStyle = timeStyle;
+            this.chrono = chrono;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof LocalizedPatternKey) {
+                LocalizedPatternKey other = (LocalizedPatternKey) obj;
+                return dateStyle == other.dateStyle && timeStyle == other.timeStyle
+                        && chrono.equals(other.chrono) && locale.equals(other.locale);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((Objects.hashCode(dateStyle) * 31 + Objects.hashCode(timeStyle)) * 31
+                    + chrono.hashCode()) * 31 + locale.hashCode();
+        }
+    }
+
+    /**
+     * For desugar: A localized pattern, with the formatter compiled from it on first use.
+     */
+    private static final class LocalizedPattern {
+        final String pattern;
+        private final Locale locale;
+        private volatile DateTimeFormatter formatter;
+
+        LocalizedPattern(String pattern, Locale locale) {
+            this.pattern = pattern;
+            this.locale = locale;
+        }
+
+        DateTimeFormatter formatter() {
+            DateTimeFormatter formatter = this.formatter;
+            if (formatter == null) {
+                // Racing threads compile equal formatters, any of them may be kept.
+                formatter = new DateTimeFormatterBuilder().appendPattern(pattern).toFormatter(locale);
+                this.formatter = formatter;
+            }
+            return formatter;
+        }
+    }
+
+    /**
+     * For desugar: Gets the cached localized pattern of getLocalizedDateTimePattern.
+     *
+     * @param dateStyle  the FormatStyle for the date, null for time-only pattern
+     * @param timeStyle  the FormatStyle for the time, null for date-only pattern
+     * @param chrono  the Chronology, non-null
+     * @param locale  the locale, non-null
+     * @return the localized pattern, not null
+     */
+    private static LocalizedPattern localizedPattern(FormatStyle dateStyle, FormatStyle timeStyle,
+            Chronology chrono, Locale locale) {
+        LocalizedPatternKey key = new LocalizedPatternKey(dateStyle, timeStyle, chrono, locale);
+        LocalizedPattern localized = LOCALIZED_PATTERN_CACHE.get(key);
+        if (localized == null) {
+            localized = new LocalizedPattern(
+                    createLocalizedDateTimePattern(dateStyle, timeStyle, locale), locale);
+            if (LOCALIZED_PATTERN_CACHE.size() >= LOCALIZED_PATTERN_CACHE_LIMIT) {
+                LOCALIZED_PATTERN_CACHE.clear();
+            }
+            LocalizedPattern old = LOCALIZED_PATTERN_CACHE.putIfAbsent(key, localized);
+            if (old != null) {
+                localized = old;
+            }
+        }
+        return localized;
+    }
+
+    /**
+     * For desugar: Creates the localized pattern from the pattern of java.text.DateFormat.
+     */
+    private static String createLocalizedDateTimePattern(FormatStyle dateStyle,
+            FormatStyle timeStyle, Locale locale) {
         DateFormat format;
         if (timeStyle == null) {
             format = DateFormat.getDateInstance(dateStyle.ordinal(), locale);
@@ -4036,6 +4146,8 @@ public final class DateTimeFormatterBuilder {
                     this.preferredZones.add(id.getId());
                 }
             }
+            // For desugar: formatters are usually created at startup, well before they parse.
+            DesugarZoneNameTrie.startPrecomputing();
         }
 
         private static final int STD = 0;
@@ -4129,65 +4241,76 @@ public final class DateTimeFormatterBuilder {
             return true;
         }
 
-        // cache per instance for now
-        private final Map<Locale, Entry<Integer, SoftReference<PrefixTree>>>
-            cachedTree = new HashMap<>();
-        private final Map<Locale, Entry<Integer, SoftReference<PrefixTree>>>
-            cachedTreeCI = new HashMap<>();
-
+        // For desugar: match zone names with the DesugarZoneNameTrie shared by all formatters,
+        // instead of a PrefixTree per formatter and locale that is rebuilt when softly cleared.
         @Override
-        protected PrefixTree getTree(DateTimeParseContext context) {
+        protected String match(DateTimeParseContext context, CharSequence text, ParsePosition ppos) {
             if (textStyle == TextStyle.NARROW) {
-                return super.getTree(context);
-            }
-            Locale locale = context.getLocale();
-            boolean isCaseSensitive = context.isCaseSensitive();
-            Set<String> regionIds = ZoneRulesProvider.getAvailableZoneIds();
-            int regionIdsSize = regionIds.size();
-
-            Map<Locale, Entry<Integer, SoftReference<PrefixTree>>> cached =
-                isCaseSensitive ? cachedTree : cachedTreeCI;
-
-            Entry<Integer, SoftReference<PrefixTree>> entry = null;
-            PrefixTree tree = null;
-            String[][] zoneStrings = null;
-            if ((entry = cached.get(locale)) == null ||
-                (entry.getKey() != regionIdsSize ||
-                (tree = entry.getValue().get()) == null)) {
-                tree = PrefixTree.newTree(context);
-                // For desugar: access locale's zone strings through public legacy APIs
-                // zoneStrings = TimeZoneNameUtility.getZoneStrings(locale);
-                zoneStrings = java.text.DateFormatSymbols.getInstance(locale).getZoneStrings();
-                for (String[] names : zoneStrings) {
-                    String zid = names[0];
-                    if (!regionIds.contains(zid)) {
-                        continue;
-                    }
-                    tree.add(zid, zid);    // don't convert zid -> metazone
-                    zid = ZoneName.toZid(zid, locale);
-                    int i = textStyle == TextStyle.FULL ? 1 : 2;
-                    for (; i < names.length; i += 2) {
-                        tree.add(names[i], zid);
-                    }
-                }
-                // if we have a set of preferred zones, need a copy and
-                // add the preferred zones again to overwrite
-                if (preferredZones != null) {
-                    for (String[] names : zoneStrings) {
-                        String zid = names[0];
-                        if (!preferredZones.contains(zid) || !regionIds.contains(zid)) {
-                            continue;
-                        }
-                        int i = textStyle == TextStyle.FULL ? 1 : 2;
-                        for (; i < names.length; i += 2) {
-                            tree.add(names[i], zid);
-                       }
-                    }
-                }
-                cached.put(locale, new SimpleImmutableEntry<>(regionIdsSize, new SoftReference<>(tree)));
-            }
-            return tree;
-        }
+                return super.match(context, text, ppos);
+            }
+            return DesugarZoneNameTrie.of(context.getLocale(), textStyle == TextStyle.FULL)
+                    .match(text, ppos, context.isCaseSensitive(), preferredZones);
+        }
+
+        // // cache per instance for now
+        // private final Map<Locale, Entry<Integer, SoftReference<PrefixTree>>>
+        //     cachedTree = new HashMap<>();
+        // private final Map<Locale, Entry<Integer, SoftReference<PrefixTree>>>
+        //     cachedTreeCI = new HashMap<>();
+        //
+        // @Override
+        // protected PrefixTree getTree(DateTimeParseContext context) {
+        //     if (textStyle == TextStyle.NARROW) {
+        //         return super.getTree(context);
+        //     }
+        //     Locale locale = context.getLocale();
+        //     boolean isCaseSensitive = context.isCaseSensitive();
+        //     Set<String> regionIds = ZoneRulesProvider.getAvailableZoneIds();
+        //     int regionIdsSize = regionIds.size();
+        //
+        //     Map<Locale, Entry<Integer, SoftReference<PrefixTree>>> cached =
+        //         isCaseSensitive ? cachedTree : cachedTreeCI;
+        //
+        //     Entry<Integer, SoftReference<PrefixTree>> entry = null;
+        //     PrefixTree tree = null;
+        //     String[][] zoneStrings = null;
+        //     if ((entry = cached.get(locale)) == null ||
+        //         (entry.getKey() != regionIdsSize ||
+        //         (tree = entry.getValue().get()) == null)) {
+        //         tree = PrefixTree.newTree(context);
+        //         // For desugar: access locale's zone strings through public legacy APIs
+        //         // zoneStrings = TimeZoneNameUtility.getZoneStrings(locale);
+        //         zoneStrings = java.text.DateFormatSymbols.getInstance(locale).getZoneStrings();
+        //         for (String[] names : zoneStrings) {
+        //             String zid = names[0];
+        //             if (!regionIds.contains(zid)) {
+        //                 continue;
+        //             }
+        //             tree.add(zid, zid);    // don't convert zid -> metazone
+        //             zid = ZoneName.toZid(zid, locale);
+        //             int i = textStyle == TextStyle.FULL ? 1 : 2;
+        //             for (; i < names.length; i += 2) {
+        //                 tree.add(names[i], zid);
+        //             }
+        //         }
+        //         // if we have a set of preferred zones, need a copy and
+        //         // add the preferred zones again to overwrite
+        //         if (preferredZones != null) {
+        //             for (String[] names : zoneStrings) {
+        //                 String zid = names[0];
+        //                 if (!preferredZones.contains(zid) || !regionIds.contains(zid)) {
+        //                     continue;
+        //                 }
+        //                 int i = textStyle == TextStyle.FULL ? 1 : 2;
+        //                 for (; i < names.length; i += 2) {
+        //                     tree.add(names[i], zid);
+        //                }
+        //             }
+        //         }
+        //         cached.put(locale, new SimpleImmutableEntry<>(regionIdsSize, new SoftReference<>(tree)));
+        //     }
+        //     return tree;
+        // }
     }
 
     //-----------------------------------------------------------------------
@@ -4241,6 +4364,19 @@ public final class DateTimeFormatterBuilder {
             return cached.getValue();
         }
 
+        /**
+         * For desugar: Matches the longest zone ID at the position, or zone name in
+         * ZoneTextPrinterParser.
+         *
+         * @param context  the parse context
+         * @param text  the input text to parse, not null
+         * @param ppos  the position to start parsing at, updated to the end of the match
+         * @return the zone ID, or null if no match found
+         */
+        protected String match(DateTimeParseContext context, CharSequence text, ParsePosition ppos) {
+            return getTree(context).match(text, ppos);
+        }
+
         /**
          * This implementation looks for the longest matching string.
          * For example, parsing Etc/GMT-2 will return Etc/GMC-2 rather than just
@@ -4278,9 +4414,11 @@ public final class DateTimeFormatterBuilder {
             }
 
             // parse
-            PrefixTree tree = getTree(context);
+            // For desugar: let ZoneTextPrinterParser match zone names without a PrefixTree
+            // PrefixTree tree = getTree(context);
             ParsePosition ppos = new ParsePosition(position);
-            String parsedZoneId = tree.match(text, ppos);
+            // String parsedZoneId = tree.match(text, ppos);
+            String parsedZoneId = match(context, text, ppos);
             if (parsedZoneId == null) {
                 if (context.charEquals(nextChar, 'Z')) {
                     context.setParsed(ZoneOffset.UTC);
@@ -4761,8 +4899,9 @@ public final class DateTimeFormatterBuilder {
      * Prints or parses a localized pattern.
      */
     static final class LocalizedPrinterParser implements DateTimePrinterParser {
-        /** Cache of formatters. */
-        private static final ConcurrentMap<String, DateTimeFormatter> FORMATTER_CACHE = new ConcurrentHashMap<>(16, 0.75f, 2);
+        // For desugar: formatters are cached with their patterns in LOCALIZED_PATTERN_CACHE
+        // /** Cache of formatters. */
+        // private static final ConcurrentMap<String, DateTimeFormatter> FORMATTER_CACHE = new ConcurrentHashMap<>(16, 0.75f, 2);
 
         private final FormatStyle dateStyle;
         private final FormatStyle timeStyle;
@@ -4803,17 +4942,19 @@ public final class DateTimeFormatterBuilder {
          * @throws IllegalArgumentException if the formatter cannot be found
          */
         private DateTimeFormatter formatter(Locale locale, Chronology chrono) {
-            String key = chrono.getId() + '|' + locale.toString() + '|' + dateStyle + timeStyle;
-            DateTimeFormatter formatter = FORMATTER_CACHE.get(key);
-            if (formatter == null) {
-                String pattern = getLocalizedDateTimePattern(dateStyle, timeStyle, chrono, locale);
-                formatter = new DateTimeFormatterBuilder().appendPattern(pattern).toFormatter(locale);
-                DateTimeFormatter old = FORMATTER_CACHE.putIfAbsent(key, formatter);
-                if (old != null) {
-                    formatter = old;
-                }
-            }
-            return formatter;
+            // For desugar: share the cache of getLocalizedDateTimePattern
+            // String key = chrono.getId() + '|' + locale.toString() + '|' + dateStyle + timeStyle;
+            // DateTimeFormatter formatter = FORMATTER_CACHE.get(key);
+            // if (formatter == null) {
+            //     String pattern = getLocalizedDateTimePattern(dateStyle, timeStyle, chrono, locale);
+            //     formatter = new DateTimeFormatterBuilder().appendPattern(pattern).toFormatter(locale);
+            //     DateTimeFormatter old = FORMATTER_CACHE.putIfAbsent(key, formatter);
+            //     if (old != null) {
+            //         formatter = old;
+            //     }
+            // }
+            // return formatter;
+            return localizedPattern(dateStyle, timeStyle, chrono, locale).formatter();
         }
 
         @Override
@@ -44,14 +44,19 @@ public class DesugarDateTimeTextProviderHelper {
     Map<Long, String> narrowStandAloneMap = new LinkedHashMap<>();
     Map<Long, String> shortStandAloneMap = new LinkedHashMap<>();
 
-    String longMonth = "LLLL";
-    String shortMonth = "LLL";
+    // One calendar and one formatter per style are reused for all months.
+    TimeZone legacyUtc = TimeZone.getTimeZone("UTC");
+    Calendar calendar = newUtcCalendar(legacyUtc);
+    SimpleDateFormat longWriter = newStandaloneWriter("LLLL", loc, legacyUtc);
+    SimpleDateFormat shortWriter = newStandaloneWriter("LLL", loc, legacyUtc);
 
     for (long i = 1; i <= numMonth; i++) {
-      String longName = computeStandaloneMonthName(i, longMonth, loc);
+      calendar.set(0, (int) i, 0, 0, 0, 0);
+      Date legacy = calendar.getTime();
+      String longName = longWriter.format(legacy);
       longStandAloneMap.put(i, longName);
       narrowStandAloneMap.put(i, firstCodePoint(longName));
-      String shortName = computeStandaloneMonthName(i, shortMonth, loc);
+      String shortName = shortWriter.format(legacy);
       shortStandAloneMap.put(i, shortName);
     }
 
@@ -66,15 +71,17 @@ public class DesugarDateTimeTextProviderHelper {
     }
   }
 
-  private static String computeStandaloneMonthName(long id, String standalonePattern, Locale loc) {
-    TimeZone legacyUtc = TimeZone.getTimeZone("UTC");
-    SimpleDateFormat writer = new SimpleDateFormat(standalonePattern, loc);
-    writer.setTimeZone(legacyUtc);
+  private static Calendar newUtcCalendar(TimeZone legacyUtc) {
     Calendar calendar = Calendar.getInstance();
     calendar.setTimeZone(legacyUtc);
-    calendar.set(0, (int) id, 0, 0, 0, 0);
-    Date legacy = calendar.getTime();
-    return writer.format(legacy);
+    return calendar;
+  }
+
+  private static SimpleDateFormat newStandaloneWriter(
+      String standalonePattern, Locale loc, TimeZone legacyUtc) {
+    SimpleDateFormat writer = new SimpleDateFormat(standalonePattern, loc);
+    writer.setTimeZone(legacyUtc);
+    return writer;
   }
 
   private static String firstCodePoint(String string) {
@@ -98,18 +105,24 @@ public class DesugarDateTimeTextProviderHelper {
     Map<Long, String> narrowStandAloneMap = new LinkedHashMap<>();
     Map<Long, String> shortStandAloneMap = new LinkedHashMap<>();
 
-    String longDay = "cccc";
-    String shortDay = "ccc";
-
     boolean useLastCodePointAsNarrowName =
         loc == Locale.SIMPLIFIED_CHINESE || loc == Locale.TRADITIONAL_CHINESE;
 
+    // One calendar and one formatter per style are reused for all days of week.
+    TimeZone legacyUtc = TimeZone.getTimeZone("UTC");
+    Calendar calendar = newUtcCalendar(legacyUtc);
+    SimpleDateFormat longWriter = newStandaloneWriter("cccc", loc, legacyUtc);
+    SimpleDateFormat shortWriter = newStandaloneWriter("ccc", loc, legacyUtc);
+
     for (long i = 1; i <= numDaysOfWeek; i++) {
-      String longName = computeStandaloneDayOfWeekName(i, longDay, loc);
+      // Feb 1st 2016 is a Monday.
+      calendar.set(2016, 1, (int) i, 0, 0, 0);
+      Date legacy = calendar.getTime();
+      String longName = longWriter.format(legacy);
       longStandAloneMap.put(i, longName);
       narrowStandAloneMap.put(
           i, useLastCodePointAsNarrowName ? lastCodePoint(longName) : firstCodePoint(longName));
-      String shortName = computeStandaloneDayOfWeekName(i, shortDay, loc);
+      String shortName = shortWriter.format(legacy);
       shortStandAloneMap.put(i, shortName);
     }
 
@@ -124,18 +137,5 @@ public class DesugarDateTimeTextProviderHelper {
     }
   }
 
-  private static String computeStandaloneDayOfWeekName(
-      long id, String standalonePattern, Locale loc) {
-    TimeZone legacyUtc = TimeZone.getTimeZone("UTC");
-    SimpleDateFormat writer = new SimpleDateFormat(standalonePattern, loc);
-    writer.setTimeZone(legacyUtc);
-    Calendar calendar = Calendar.getInstance();
-    calendar.setTimeZone(legacyUtc);
-    // Jan 1st 2016 is a Monday.
-    calendar.set(2016, 1, (int) id, 0, 0, 0);
-    Date legacy = calendar.getTime();
-    return writer.format(legacy);
-  }
-
   private DesugarDateTimeTextProviderHelper() {}
 }
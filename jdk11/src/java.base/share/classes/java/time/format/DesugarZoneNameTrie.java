@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2023 Google LLC
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Google designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Google in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package java.time.format;
+
+import java.text.DateFormatSymbols;
+import java.text.ParsePosition;
+import java.time.zone.ZoneRulesProvider;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An immutable trie of the zone names of a locale, used by the ZoneTextPrinterParser of {@link
+ * DateTimeFormatterBuilder} to parse zone names instead of a PrefixTree per formatter.
+ *
+ * <p>The trie is built once per locale and text style from {@link
+ * DateFormatSymbols#getZoneStrings()} and kept for the lifetime of the process. The locales listed
+ * as comma separated language tags in the system property {@value #PRECOMPUTED_LOCALES_PROPERTY}
+ * are built in the background once the first formatter that parses zone names is created, which
+ * apps usually do at startup, so that the tries are ready by the first parse. A parse that comes
+ * before the trie of its locale is ready builds that trie itself.
+ *
+ * <p>The nodes are stored in arrays in breadth first order, each labeled with a case folded char,
+ * so that case sensitive and case insensitive parsing share the same nodes. A node lists the names
+ * ending at it in the order they were added, together with their zone IDs; case sensitive parsing
+ * only accepts the names that match the text exactly. As with PrefixTree, the longest name is
+ * matched and a name added later overrides an equal name added before it.
+ */
+final class DesugarZoneNameTrie {
+
+  static final String PRECOMPUTED_LOCALES_PROPERTY =
+      "desugar.java.time.format.precomputedZoneNameLocales";
+
+  private static final ConcurrentMap<Locale, DesugarZoneNameTrie> FULL_TRIES =
+      new ConcurrentHashMap<>();
+  private static final ConcurrentMap<Locale, DesugarZoneNameTrie> SHORT_TRIES =
+      new ConcurrentHashMap<>();
+
+  private static final AtomicBoolean PRECOMPUTE_STARTED = new AtomicBoolean();
+
+  /** The number of region IDs when the trie was built, it is rebuilt when this changes. */
+  private final int regionIdsSize;
+
+  /** The case folded char of each node, the root has none. */
+  private final char[] labels;
+
+  /** The children of node n are the nodes childStart[n] to childStart[n + 1], sorted by label. */
+  private final int[] childStart;
+
+  /** The names ending at node n are the entries entryStart[n] to entryStart[n + 1]. */
+  private final int[] entryStart;
+
+  /** The names of the entries. */
+  private final String[] names;
+
+  /** The zone IDs the names are parsed to. */
+  private final String[] zones;
+
+  /** The zone IDs the names are parsed to when their zone is preferred, null for zone IDs. */
+  private final String[] preferredZones;
+
+  private DesugarZoneNameTrie(
+      int regionIdsSize,
+      char[] labels,
+      int[] childStart,
+      int[] entryStart,
+      String[] names,
+      String[] zones,
+      String[] preferredZones) {
+    this.regionIdsSize = regionIdsSize;
+    this.labels = labels;
+    this.childStart = childStart;
+    this.entryStart = entryStart;
+    this.names = names;
+    this.zones = zones;
+    this.preferredZones = preferredZones;
+  }
+
+  /**
+   * Gets the trie of the zone names of the locale.
+   *
+   * @param locale the locale, not null
+   * @param full whether to use the full names, else the short names
+   * @return the trie, not null
+   */
+  static DesugarZoneNameTrie of(Locale locale, boolean full) {
+    Set<String> regionIds = ZoneRulesProvider.getAvailableZoneIds();
+    ConcurrentMap<Locale, DesugarZoneNameTrie> tries = full ? FULL_TRIES : SHORT_TRIES;
+    DesugarZoneNameTrie trie = tries.get(locale);
+    if (trie == null || trie.regionIdsSize != regionIds.size()) {
+      trie = build(locale, full, regionIds);
+      tries.put(locale, trie);
+    }
+    return trie;
+  }
+
+  /**
+   * Matches the longest zone name at the parse position.
+   *
+   * @param text the input text to parse, not null
+   * @param pos the position to start parsing at, updated to the end of the name if found
+   * @param caseSensitive whether the name must match the case of the text
+   * @param preferred the preferred zone IDs, null if none
+   * @return the zone ID, or null if no name matches
+   */
+  String match(CharSequence text, ParsePosition pos, boolean caseSensitive, Set<String> preferred) {
+    int start = pos.getIndex();
+    int end = text.length();
+    String found = null;
+    int foundEnd = start;
+    int node = 0;
+    for (int off = start; ; ) {
+      if (entryStart[node] != entryStart[node + 1]) {
+        String zone = zone(node, text, start, caseSensitive, preferred);
+        if (zone != null) {
+          found = zone;
+          foundEnd = off;
+        }
+      }
+      if (off == end) {
+        break;
+      }
+      node = child(node, fold(text.charAt(off++)));
+      if (node < 0) {
+        break;
+      }
+    }
+    if (found != null) {
+      pos.setIndex(foundEnd);
+    }
+    return found;
+  }
+
+  /** Returns the zone ID of the latest name of the node that matches, preferred ones first. */
+  private String zone(
+      int node, CharSequence text, int start, boolean caseSensitive, Set<String> preferred) {
+    String zone = null;
+    for (int i = entryStart[node + 1] - 1; i >= entryStart[node]; i--) {
+      if (caseSensitive && !regionMatches(names[i], text, start)) {
+        continue;
+      }
+      if (zone == null) {
+        zone = zones[i];
+        if (preferred == null) {
+          return zone;
+        }
+      }
+      if (preferredZones[i] != null && preferred.contains(preferredZones[i])) {
+        return preferredZones[i];
+      }
+    }
+    return zone;
+  }
+
+  private int child(int node, char label) {
+    int index = Arrays.binarySearch(labels, childStart[node], childStart[node + 1], label);
+    return index < 0 ? -1 : index;
+  }
+
+  private static boolean regionMatches(String name, CharSequence text, int start) {
+    for (int i = 0; i < name.length(); i++) {
+      if (name.charAt(i) != text.charAt(start + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Folds the case of a char, like DateTimeParseContext.charEqualsIgnoreCase compares chars. */
+  private static char fold(char c) {
+    return Character.toLowerCase(Character.toUpperCase(c));
+  }
+
+  /**
+   * Starts building the tries of the locales in {@value #PRECOMPUTED_LOCALES_PROPERTY} in the
+   * background, unless already started. Called when a formatter that parses zone names is created.
+   */
+  static void startPrecomputing() {
+    if (PRECOMPUTE_STARTED.compareAndSet(false, true)) {
+      precompute(System.getProperty(PRECOMPUTED_LOCALES_PROPERTY));
+    }
+  }
+
+  private static void precompute(String languageTags) {
+    if (languageTags == null || languageTags.isEmpty()) {
+      return;
+    }
+    List<Locale> locales = new ArrayList<>();
+    for (String languageTag : languageTags.split(",")) {
+      if (!languageTag.trim().isEmpty()) {
+        locales.add(Locale.forLanguageTag(languageTag.trim()));
+      }
+    }
+    Thread thread =
+        new Thread(
+            () -> {
+              for (Locale locale : locales) {
+                of(locale, true);
+                of(locale, false);
+              }
+            },
+            "desugar-zone-names");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private static DesugarZoneNameTrie build(Locale locale, boolean full, Set<String> regionIds) {
+    Builder builder = new Builder();
+    // For desugar: access locale's zone strings through public legacy APIs
+    String[][] zoneStrings = DateFormatSymbols.getInstance(locale).getZoneStrings();
+    for (String[] names : zoneStrings) {
+      String zid = names[0];
+      if (!regionIds.contains(zid)) {
+        continue;
+      }
+      builder.add(zid, zid, null); // don't convert zid -> metazone
+      String metazoneZid = ZoneName.toZid(zid, locale);
+      for (int i = full ? 1 : 2; i < names.length; i += 2) {
+        if (names[i] != null) {
+          builder.add(names[i], metazoneZid, zid);
+        }
+      }
+    }
+    return builder.build(regionIds.size());
+  }
+
+  /** A mutable trie, flattened into a DesugarZoneNameTrie once all names are added. */
+  private static final class Builder {
+
+    private static final class Node {
+      final char label;
+      final List<Node> children = new ArrayList<>(1);
+      final List<Integer> entries = new ArrayList<>(0);
+
+      Node(char label) {
+        this.label = label;
+      }
+
+      Node child(char label) {
+        int low = 0;
+        int high = children.size() - 1;
+        while (low <= high) {
+          int mid = (low + high) >>> 1;
+          char midLabel = children.get(mid).label;
+          if (midLabel < label) {
+            low = mid + 1;
+          } else if (midLabel > label) {
+            high = mid - 1;
+          } else {
+            return children.get(mid);
+          }
+        }
+        Node child = new Node(label);
+        children.add(low, child);
+        return child;
+      }
+    }
+
+    private final Node root = new Node('\0');
+    private final List<String> names = new ArrayList<>();
+    private final List<String> zones = new ArrayList<>();
+    private final List<String> preferredZones = new ArrayList<>();
+    private int nodeCount = 1;
+
+    void add(String name, String zone, String preferredZone) {
+      Node node = root;
+      for (int i = 0; i < name.length(); i++) {
+        Node parent = node;
+        int size = parent.children.size();
+        node = parent.child(fold(name.charAt(i)));
+        if (parent.children.size() != size) {
+          nodeCount++;
+        }
+      }
+      node.entries.add(names.size());
+      names.add(name);
+      zones.add(zone);
+      preferredZones.add(preferredZone);
+    }
+
+    DesugarZoneNameTrie build(int regionIdsSize) {
+      char[] labels = new char[nodeCount];
+      int[] childStart = new int[nodeCount + 1];
+      int[] entryStart = new int[nodeCount + 1];
+      String[] entryNames = new String[names.size()];
+      String[] entryZones = new String[names.size()];
+      String[] entryPreferredZones = new String[names.size()];
+      Node[] queue = new Node[nodeCount];
+      queue[0] = root;
+      int tail = 1;
+      int entry = 0;
+      for (int head = 0; head < nodeCount; head++) {
+        Node node = queue[head];
+        labels[head] = node.label;
+        childStart[head] = tail;
+        for (Node child : node.children) {
+          queue[tail++] = child;
+        }
+        entryStart[head] = entry;
+        for (int index : node.entries) {
+          entryNames[entry] = names.get(index);
+          entryZones[entry] = zones.get(index);
+          entryPreferredZones[entry] = preferredZones.get(index);
+          entry++;
+        }
+      }
+      childStart[nodeCount] = tail;
+      entryStart[nodeCount] = entry;
+      return new DesugarZoneNameTrie(
+          regionIdsSize,
+          labels,
+          childStart,
+          entryStart,
+          entryNames,
+          entryZones,
+          entryPreferredZones);
+    }
+  }
+}
@@ -62,11 +62,10 @@
 package java.time.zone;
 
 import java.io.ByteArrayInputStream;
-import java.io.BufferedInputStream;
 import java.io.DataInputStream;
-import java.io.File;
+import java.io.EOFException;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.FileInputStream;
 import java.io.StreamCorruptedException;
 import java.net.URL;
 import java.util.Arrays;
@@ -76,7 +75,6 @@ import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Loads time-zone rules for 'TZDB'.
@@ -94,9 +92,29 @@ final class TzdbZoneRulesProvider extends ZoneRulesProvider {
      */
     private String versionId;
     /**
-     * Region to rules mapping
+     * For desugar: the whole tzdb.dat resource. Rules are deserialized from it on first access.
      */
-    private final Map<String, Object> regionToRules = new ConcurrentHashMap<>();
+    private byte[] data;
+    /**
+     * For desugar: the regions that have rules, sorted.
+     */
+    private String[] sortedRegions;
+    /**
+     * For desugar: the index of the rules for each of {@link #sortedRegions}.
+     */
+    private int[] regionRules;
+    /**
+     * For desugar: offset in {@link #data} of each rule.
+     */
+    private int[] ruleOffsets;
+    /**
+     * For desugar: length in {@link #data} of each rule.
+     */
+    private int[] ruleLengths;
+    /**
+     * For desugar: the rules deserialized so far, indexed like {@link #ruleOffsets}.
+     */
+    private ZoneRules[] ruleCache;
 
     /**
      * Creates an instance.
@@ -110,8 +128,9 @@ final class TzdbZoneRulesProvider extends ZoneRulesProvider {
             URL datUrl = TzdbZoneRulesProvider.class.getClassLoader().getResource(
                 System.getProperty("jre.tzdb.dat", "j$/time/zone/tzdb.dat"));
             // Intentionally NPE on .openStream() if requisite resource is missing.
-            DataInputStream dis = new DataInputStream(new BufferedInputStream(datUrl.openStream()));
-            load(dis);
+            try (InputStream in = datUrl.openStream()) {
+                load(readFully(in));
+            }
         } catch (Exception ex) {
             throw new ZoneRulesException("Unable to load TZDB time-zone rules", ex);
         }
@@ -125,21 +144,24 @@ final class TzdbZoneRulesProvider extends ZoneRulesProvider {
     @Override
     protected ZoneRules provideRules(String zoneId, boolean forCaching) {
         // forCaching flag is ignored because this is not a dynamic provider
-        Object obj = regionToRules.get(zoneId);
-        if (obj == null) {
+        int regionIndex = Arrays.binarySearch(sortedRegions, zoneId);
+        if (regionIndex < 0) {
             throw new ZoneRulesException("Unknown time-zone ID: " + zoneId);
         }
-        try {
-            if (obj instanceof byte[]) {
-                byte[] bytes = (byte[]) obj;
-                DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bytes));
-                obj = Ser.read(dis);
-                regionToRules.put(zoneId, obj);
+        int ruleIndex = regionRules[regionIndex];
+        // OK if two or more threads deserialize the same rules, ZoneRules is immutable.
+        ZoneRules zoneRules = ruleCache[ruleIndex];
+        if (zoneRules == null) {
+            try {
+                DataInputStream dis = new DataInputStream(
+                        new ByteArrayInputStream(data, ruleOffsets[ruleIndex], ruleLengths[ruleIndex]));
+                zoneRules = (ZoneRules) Ser.read(dis);
+            } catch (Exception ex) {
+                throw new ZoneRulesException("Invalid binary time-zone data: TZDB:" + zoneId + ", version: " + versionId, ex);
             }
-            return (ZoneRules) obj;
-        } catch (Exception ex) {
-            throw new ZoneRulesException("Invalid binary time-zone data: TZDB:" + zoneId + ", version: " + versionId, ex);
+            ruleCache[ruleIndex] = zoneRules;
         }
+        return zoneRules;
     }
 
     @Override
@@ -152,13 +174,32 @@ final class TzdbZoneRulesProvider extends ZoneRulesProvider {
         return map;
     }
 
+    // For desugar: reads the whole resource into a single buffer
+    private static byte[] readFully(InputStream in) throws IOException {
+        byte[] buf = new byte[128 * 1024];
+        int size = 0;
+        int n;
+        while ((n = in.read(buf, size, buf.length - size)) >= 0) {
+            size += n;
+            if (size == buf.length) {
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+        }
+        return size == buf.length ? buf : Arrays.copyOf(buf, size);
+    }
+
     /**
-     * Loads the rules from a DateInputStream, often in a jar file.
+     * Loads the rules from a byte array, often read from a jar file.
+     * <p>
+     * For desugar: only records where each rule is stored and which rule each region uses,
+     * the rules are deserialized in {@link #provideRules} when first requested.
      *
-     * @param dis  the DateInputStream to load, not null
+     * @param data  the tzdb.dat content, not null
      * @throws Exception if an error occurs
      */
-    private void load(DataInputStream dis) throws Exception {
+    private void load(byte[] data) throws Exception {
+        ByteArrayInputStream bis = new ByteArrayInputStream(data);
+        DataInputStream dis = new DataInputStream(bis);
         if (dis.readByte() != 1) {
             throw new StreamCorruptedException("File format not recognised");
         }
@@ -181,22 +222,44 @@ final class TzdbZoneRulesProvider extends ZoneRulesProvider {
         regionIds = Arrays.asList(regionArray);
         // rules
         int ruleCount = dis.readShort();
-        Object[] ruleArray = new Object[ruleCount];
+        int[] ruleOffsets = new int[ruleCount];
+        int[] ruleLengths = new int[ruleCount];
         for (int i = 0; i < ruleCount; i++) {
-            byte[] bytes = new byte[dis.readShort()];
-            dis.readFully(bytes);
-            ruleArray[i] = bytes;
+            int length = dis.readShort();
+            ruleOffsets[i] = data.length - bis.available();
+            ruleLengths[i] = length;
+            if (dis.skipBytes(length) != length) {
+                throw new EOFException();
+            }
         }
-        // link version-region-rules
+        // link version-region-rules, only the last version is kept
+        TreeMap<String, Integer> regionToRule = new TreeMap<>();
         for (int i = 0; i < versionCount; i++) {
             int versionRegionCount = dis.readShort();
-            regionToRules.clear();
+            regionToRule.clear();
             for (int j = 0; j < versionRegionCount; j++) {
                 String region = regionArray[dis.readShort()];
-                Object rule = ruleArray[dis.readShort() & 0xffff];
-                regionToRules.put(region, rule);
+                int rule = dis.readShort() & 0xffff;
+                if (rule >= ruleCount) {
+                    throw new StreamCorruptedException("Invalid rule index for " + region);
+                }
+                regionToRule.put(region, rule);
             }
         }
+        String[] sortedRegions = new String[regionToRule.size()];
+        int[] regionRules = new int[regionToRule.size()];
+        int index = 0;
+        for (Map.Entry<String, Integer> entry : regionToRule.entrySet()) {
+            sortedRegions[index] = entry.getKey();
+            regionRules[index] = entry.getValue();
+            index++;
+        }
+        this.data = data;
+        this.sortedRegions = sortedRegions;
+        this.regionRules = regionRules;
+        this.ruleOffsets = ruleOffsets;
+        this.ruleLengths = ruleLengths;
+        this.ruleCache = new ZoneRules[ruleCount];
     }
 
     @Override
@@ -153,6 +153,12 @@ public final class ZoneRules implements Serializable {
      */
     private final TimeZone timeZone;
 
+    /**
+     * For desugar: the distinct offsets of {@link #timeZone} returned so far, so that offset
+     * lookups reuse them instead of going through {@link ZoneOffset#ofTotalSeconds}.
+     */
+    private transient volatile ZoneOffset[] offsetCache = EMPTY_OFFSETS;
+
     /**
      * The map of recent transitions.
      */
@@ -171,6 +177,14 @@ public final class ZoneRules implements Serializable {
      * The zero-length ldt array.
      */
     private static final LocalDateTime[] EMPTY_LDT_ARRAY = new LocalDateTime[0];
+    /**
+     * For desugar: the zero-length offset array.
+     */
+    private static final ZoneOffset[] EMPTY_OFFSETS = new ZoneOffset[0];
+    /**
+     * For desugar: the most offsets cached for a {@link TimeZone}, more than any zone has used.
+     */
+    private static final int MAX_CACHED_OFFSETS = 32;
 
     /**
      * Obtains an instance of a ZoneRules.
@@ -344,6 +358,25 @@ public final class ZoneRules implements Serializable {
         return ZoneOffset.ofTotalSeconds(offsetMillis / 1000);
     }
 
+    // For desugar: like offsetFromMillis, but reuses the offsets in offsetCache
+    private ZoneOffset cachedOffsetFromMillis(int offsetMillis) {
+        int totalSeconds = offsetMillis / 1000;
+        ZoneOffset[] offsets = offsetCache;
+        for (ZoneOffset offset : offsets) {
+            if (offset.getTotalSeconds() == totalSeconds) {
+                return offset;
+            }
+        }
+        ZoneOffset offset = ZoneOffset.ofTotalSeconds(totalSeconds);
+        if (offsets.length < MAX_CACHED_OFFSETS) {
+            // OK if a racing thread drops an entry, it is added again on its next lookup.
+            offsets = Arrays.copyOf(offsets, offsets.length + 1);
+            offsets[offsets.length - 1] = offset;
+            offsetCache = offsets;
+        }
+        return offset;
+    }
+
     /**
      * Defend against malicious streams.
      *
@@ -529,7 +562,7 @@ public final class ZoneRules implements Serializable {
     public ZoneOffset getOffset(Instant instant) {
         // For desugar: use TimeZone if given
         if (timeZone != null) {
-            return offsetFromMillis(timeZone.getOffset(instant.toEpochMilli()));
+            return cachedOffsetFromMillis(timeZone.getOffset(instant.toEpochMilli()));
         }
         if (savingsInstantTransitions.length == 0) {
             return standardOffsets[0];
@@ -800,7 +833,11 @@ public final class ZoneRules implements Serializable {
         if (transArray != null) {
             return transArray;
         }
-        // For desugar: use TimeZone if given
+        // For desugar: use TimeZone if given.  TimeZone doesn't expose its transitions, so they
+        // are found by probing and bisecting its offsets, which can miss two transitions that are
+        // less than a probe interval apart.  getOffsetInfo, getTransition, nextTransition and
+        // previousTransition build on this array and inherit that limit, but getOffset(Instant)
+        // asks the TimeZone directly and is always exact.
         if (timeZone != null) {
             if (year < 1800) {
                 return NO_TRANSITIONS;
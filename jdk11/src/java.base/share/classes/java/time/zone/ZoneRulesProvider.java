@@ -457,6 +457,11 @@ public abstract class ZoneRulesProvider {
 
         private final Set<String> zoneIds;
 
+        /**
+         * The rules created so far, so that each zone keeps its cached offsets and transitions.
+         */
+        private final ConcurrentMap<String, ZoneRules> rules = new ConcurrentHashMap<>();
+
         TimeZoneRulesProvider() {
             LinkedHashSet<String> availableIds = new LinkedHashSet<>();
             for (String id : TimeZone.getAvailableIDs()) {
@@ -473,7 +478,16 @@ public abstract class ZoneRulesProvider {
         @Override
         protected ZoneRules provideRules(String zoneId, boolean forCaching) {
             if (zoneIds.contains(zoneId)) {
-                return new ZoneRules(TimeZone.getTimeZone(zoneId));
+                // ZoneRules don't expose their TimeZone, so the rules can be shared
+                ZoneRules zoneRules = rules.get(zoneId);
+                if (zoneRules == null) {
+                    zoneRules = new ZoneRules(TimeZone.getTimeZone(zoneId));
+                    ZoneRules existing = rules.putIfAbsent(zoneId, zoneRules);
+                    if (existing != null) {
+                        zoneRules = existing;
+                    }
+                }
+                return zoneRules;
             } else {
                 throw new ZoneRulesException("Not a built-in time zone: " + zoneId);
             }
@@ -674,16 +674,20 @@ public class Arrays {
      *
      * @since 1.8
      */
+    @DesugarSupportedApi
     public static void parallelSort(int[] a) {
-        int n = a.length, p, g;
-        if (n <= MIN_ARRAY_SORT_GRAN ||
-            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
-            DualPivotQuicksort.sort(a, 0, n - 1, null, 0, 0);
-        else
-            new ArraysParallelSortHelpers.FJInt.Sorter
-                (null, a, new int[n], 0, n, 0,
-                 ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
-                 MIN_ARRAY_SORT_GRAN : g).invoke();
+        // For desugar: ArraysParallelSortHelpers, DualPivotQuicksort and TimSort
+        // are not part of the library.
+        // int n = a.length, p, g;
+        // if (n <= MIN_ARRAY_SORT_GRAN ||
+        //     (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+        //     DualPivotQuicksort.sort(a, 0, n - 1, null, 0, 0);
+        // else
+        //     new ArraysParallelSortHelpers.FJInt.Sorter
+        //         (null, a, new int[n], 0, n, 0,
+        //          ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
+        //          MIN_ARRAY_SORT_GRAN : g).invoke();
+        DesugarArraysParallelSortHelpers.parallelSort(a, 0, a.length);
     }
 
     /**
@@ -713,17 +717,21 @@ public class Arrays {
      *
      * @since 1.8
      */
+    @DesugarSupportedApi
     public static void parallelSort(int[] a, int fromIndex, int toIndex) {
         rangeCheck(a.length, fromIndex, toIndex);
-        int n = toIndex - fromIndex, p, g;
-        if (n <= MIN_ARRAY_SORT_GRAN ||
-            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
-            DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
-        else
-            new ArraysParallelSortHelpers.FJInt.Sorter
-                (null, a, new int[n], fromIndex, n, 0,
-                 ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
-                 MIN_ARRAY_SORT_GRAN : g).invoke();
+        // For desugar: ArraysParallelSortHelpers, DualPivotQuicksort and TimSort
+        // are not part of the library.
+        // int n = toIndex - fromIndex, p, g;
+        // if (n <= MIN_ARRAY_SORT_GRAN ||
+        //     (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+        //     DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
+        // else
+        //     new ArraysParallelSortHelpers.FJInt.Sorter
+        //         (null, a, new int[n], fromIndex, n, 0,
+        //          ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
+        //          MIN_ARRAY_SORT_GRAN : g).invoke();
+        DesugarArraysParallelSortHelpers.parallelSort(a, fromIndex, toIndex);
     }
 
     /**
@@ -744,16 +752,20 @@ public class Arrays {
      *
      * @since 1.8
      */
+    @DesugarSupportedApi
     public static void parallelSort(long[] a) {
-        int n = a.length, p, g;
-        if (n <= MIN_ARRAY_SORT_GRAN ||
-            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
-            DualPivotQuicksort.sort(a, 0, n - 1, null, 0, 0);
-        else
-            new ArraysParallelSortHelpers.FJLong.Sorter
-                (null, a, new long[n], 0, n, 0,
-                 ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
-                 MIN_ARRAY_SORT_GRAN : g).invoke();
+        // For desugar: ArraysParallelSortHelpers, DualPivotQuicksort and TimSort
+        // are not part of the library.
+        // int n = a.length, p, g;
+        // if (n <= MIN_ARRAY_SORT_GRAN ||
+        //     (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+        //     DualPivotQuicksort.sort(a, 0, n - 1, null, 0, 0);
+        // else
+        //     new ArraysParallelSortHelpers.FJLong.Sorter
+        //         (null, a, new long[n], 0, n, 0,
+        //          ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
+        //          MIN_ARRAY_SORT_GRAN : g).invoke();
+        DesugarArraysParallelSortHelpers.parallelSort(a, 0, a.length);
     }
 
     /**
@@ -783,17 +795,21 @@ public class Arrays {
      *
      * @since 1.8
      */
+    @DesugarSupportedApi
     public static void parallelSort(long[] a, int fromIndex, int toIndex) {
         rangeCheck(a.length, fromIndex, toIndex);
-        int n = toIndex - fromIndex, p, g;
-        if (n <= MIN_ARRAY_SORT_GRAN ||
-            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
-            DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
-        else
-            new ArraysParallelSortHelpers.FJLong.Sorter
-                (null, a, new long[n], fromIndex, n, 0,
-                 ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
-                 MIN_ARRAY_SORT_GRAN : g).invoke();
+        // For desugar: ArraysParallelSortHelpers, DualPivotQuicksort and TimSort
+        // are not part of the library.
+        // int n = toIndex - fromIndex, p, g;
+        // if (n <= MIN_ARRAY_SORT_GRAN ||
+        //     (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+        //     DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
+        // else
+        //     new ArraysParallelSortHelpers.FJLong.Sorter
+        //         (null, a, new long[n], fromIndex, n, 0,
+        //          ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
+        //          MIN_ARRAY_SORT_GRAN : g).invoke();
+        DesugarArraysParallelSortHelpers.parallelSort(a, fromIndex, toIndex);
     }
 
     /**
@@ -908,16 +924,20 @@ public class Arrays {
      *
      * @since 1.8
      */
+    @DesugarSupportedApi
     public static void parallelSort(double[] a) {
-        int n = a.length, p, g;
-        if (n <= MIN_ARRAY_SORT_GRAN ||
-            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
-            DualPivotQuicksort.sort(a, 0, n - 1, null, 0, 0);
-        else
-            new ArraysParallelSortHelpers.FJDouble.Sorter
-                (null, a, new double[n], 0, n, 0,
-                 ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
-                 MIN_ARRAY_SORT_GRAN : g).invoke();
+        // For desugar: ArraysParallelSortHelpers, DualPivotQuicksort and TimSort
+        // are not part of the library.
+        // int n = a.length, p, g;
+        // if (n <= MIN_ARRAY_SORT_GRAN ||
+        //     (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+        //     DualPivotQuicksort.sort(a, 0, n - 1, null, 0, 0);
+        // else
+        //     new ArraysParallelSortHelpers.FJDouble.Sorter
+        //         (null, a, new double[n], 0, n, 0,
+        //          ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
+        //          MIN_ARRAY_SORT_GRAN : g).invoke();
+        DesugarArraysParallelSortHelpers.parallelSort(a, 0, a.length);
     }
 
     /**
@@ -955,17 +975,21 @@ public class Arrays {
      *
      * @since 1.8
      */
+    @DesugarSupportedApi
     public static void parallelSort(double[] a, int fromIndex, int toIndex) {
         rangeCheck(a.length, fromIndex, toIndex);
-        int n = toIndex - fromIndex, p, g;
-        if (n <= MIN_ARRAY_SORT_GRAN ||
-            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
-            DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
-        else
-            new ArraysParallelSortHelpers.FJDouble.Sorter
-                (null, a, new double[n], fromIndex, n, 0,
-                 ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
-                 MIN_ARRAY_SORT_GRAN : g).invoke();
+        // For desugar: ArraysParallelSortHelpers, DualPivotQuicksort and TimSort
+        // are not part of the library.
+        // int n = toIndex - fromIndex, p, g;
+        // if (n <= MIN_ARRAY_SORT_GRAN ||
+        //     (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+        //     DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
+        // else
+        //     new ArraysParallelSortHelpers.FJDouble.Sorter
+        //         (null, a, new double[n], fromIndex, n, 0,
+        //          ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
+        //          MIN_ARRAY_SORT_GRAN : g).invoke();
+        DesugarArraysParallelSortHelpers.parallelSort(a, fromIndex, toIndex);
     }
 
     /**
@@ -1002,18 +1026,22 @@ public class Arrays {
      *
      * @since 1.8
      */
+    @DesugarSupportedApi
     @SuppressWarnings("unchecked")
     public static <T extends Comparable<? super T>> void parallelSort(T[] a) {
-        int n = a.length, p, g;
-        if (n <= MIN_ARRAY_SORT_GRAN ||
-            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
-            TimSort.sort(a, 0, n, NaturalOrder.INSTANCE, null, 0, 0);
-        else
-            new ArraysParallelSortHelpers.FJObject.Sorter<>
-                (null, a,
-                 (T[])Array.newInstance(a.getClass().getComponentType(), n),
-                 0, n, 0, ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
-                 MIN_ARRAY_SORT_GRAN : g, NaturalOrder.INSTANCE).invoke();
+        // For desugar: ArraysParallelSortHelpers, DualPivotQuicksort and TimSort
+        // are not part of the library.
+        // int n = a.length, p, g;
+        // if (n <= MIN_ARRAY_SORT_GRAN ||
+        //     (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+        //     TimSort.sort(a, 0, n, NaturalOrder.INSTANCE, null, 0, 0);
+        // else
+        //     new ArraysParallelSortHelpers.FJObject.Sorter<>
+        //         (null, a,
+        //          (T[])Array.newInstance(a.getClass().getComponentType(), n),
+        //          0, n, 0, ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
+        //          MIN_ARRAY_SORT_GRAN : g, NaturalOrder.INSTANCE).invoke();
+        DesugarArraysParallelSortHelpers.parallelSort(a, 0, a.length, null);
     }
 
     /**
@@ -1059,20 +1087,24 @@ public class Arrays {
      *
      * @since 1.8
      */
+    @DesugarSupportedApi
     @SuppressWarnings("unchecked")
     public static <T extends Comparable<? super T>>
     void parallelSort(T[] a, int fromIndex, int toIndex) {
         rangeCheck(a.length, fromIndex, toIndex);
-        int n = toIndex - fromIndex, p, g;
-        if (n <= MIN_ARRAY_SORT_GRAN ||
-            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
-            TimSort.sort(a, fromIndex, toIndex, NaturalOrder.INSTANCE, null, 0, 0);
-        else
-            new ArraysParallelSortHelpers.FJObject.Sorter<>
-                (null, a,
-                 (T[])Array.newInstance(a.getClass().getComponentType(), n),
-                 fromIndex, n, 0, ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
-                 MIN_ARRAY_SORT_GRAN : g, NaturalOrder.INSTANCE).invoke();
+        // For desugar: ArraysParallelSortHelpers, DualPivotQuicksort and TimSort
+        // are not part of the library.
+        // int n = toIndex - fromIndex, p, g;
+        // if (n <= MIN_ARRAY_SORT_GRAN ||
+        //     (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+        //     TimSort.sort(a, fromIndex, toIndex, NaturalOrder.INSTANCE, null, 0, 0);
+        // else
+        //     new ArraysParallelSortHelpers.FJObject.Sorter<>
+        //         (null, a,
+        //          (T[])Array.newInstance(a.getClass().getComponentType(), n),
+        //          fromIndex, n, 0, ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
+        //          MIN_ARRAY_SORT_GRAN : g, NaturalOrder.INSTANCE).invoke();
+        DesugarArraysParallelSortHelpers.parallelSort(a, fromIndex, toIndex, null);
     }
 
     /**
@@ -1108,20 +1140,24 @@ public class Arrays {
      *
      * @since 1.8
      */
+    @DesugarSupportedApi
     @SuppressWarnings("unchecked")
     public static <T> void parallelSort(T[] a, Comparator<? super T> cmp) {
-        if (cmp == null)
-            cmp = NaturalOrder.INSTANCE;
-        int n = a.length, p, g;
-        if (n <= MIN_ARRAY_SORT_GRAN ||
-            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
-            TimSort.sort(a, 0, n, cmp, null, 0, 0);
-        else
-            new ArraysParallelSortHelpers.FJObject.Sorter<>
-                (null, a,
-                 (T[])Array.newInstance(a.getClass().getComponentType(), n),
-                 0, n, 0, ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
-                 MIN_ARRAY_SORT_GRAN : g, cmp).invoke();
+        // For desugar: ArraysParallelSortHelpers, DualPivotQuicksort and TimSort
+        // are not part of the library.
+        // if (cmp == null)
+        //     cmp = NaturalOrder.INSTANCE;
+        // int n = a.length, p, g;
+        // if (n <= MIN_ARRAY_SORT_GRAN ||
+        //     (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+        //     TimSort.sort(a, 0, n, cmp, null, 0, 0);
+        // else
+        //     new ArraysParallelSortHelpers.FJObject.Sorter<>
+        //         (null, a,
+        //          (T[])Array.newInstance(a.getClass().getComponentType(), n),
+        //          0, n, 0, ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
+        //          MIN_ARRAY_SORT_GRAN : g, cmp).invoke();
+        DesugarArraysParallelSortHelpers.parallelSort(a, 0, a.length, cmp);
     }
 
     /**
@@ -1167,22 +1203,26 @@ public class Arrays {
      *
      * @since 1.8
      */
+    @DesugarSupportedApi
     @SuppressWarnings("unchecked")
     public static <T> void parallelSort(T[] a, int fromIndex, int toIndex,
                                         Comparator<? super T> cmp) {
         rangeCheck(a.length, fromIndex, toIndex);
-        if (cmp == null)
-            cmp = NaturalOrder.INSTANCE;
-        int n = toIndex - fromIndex, p, g;
-        if (n <= MIN_ARRAY_SORT_GRAN ||
-            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
-            TimSort.sort(a, fromIndex, toIndex, cmp, null, 0, 0);
-        else
-            new ArraysParallelSortHelpers.FJObject.Sorter<>
-                (null, a,
-                 (T[])Array.newInstance(a.getClass().getComponentType(), n),
-                 fromIndex, n, 0, ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
-                 MIN_ARRAY_SORT_GRAN : g, cmp).invoke();
+        // For desugar: ArraysParallelSortHelpers, DualPivotQuicksort and TimSort
+        // are not part of the library.
+        // if (cmp == null)
+        //     cmp = NaturalOrder.INSTANCE;
+        // int n = toIndex - fromIndex, p, g;
+        // if (n <= MIN_ARRAY_SORT_GRAN ||
+        //     (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+        //     TimSort.sort(a, fromIndex, toIndex, cmp, null, 0, 0);
+        // else
+        //     new ArraysParallelSortHelpers.FJObject.Sorter<>
+        //         (null, a,
+        //          (T[])Array.newInstance(a.getClass().getComponentType(), n),
+        //          fromIndex, n, 0, ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
+        //          MIN_ARRAY_SORT_GRAN : g, cmp).invoke();
+        DesugarArraysParallelSortHelpers.parallelSort(a, fromIndex, toIndex, cmp);
     }
 
     /*
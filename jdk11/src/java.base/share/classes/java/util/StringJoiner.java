@@ -233,8 +233,29 @@ public final class StringJoiner {
         if (other.elts == null) {
             return this;
         }
-        other.compactElts();
-        return add(other.elts[0]);
+        // For desugar: Add the elements of a joiner with the same delimiter
+        // one by one, so that the chars are only copied once by toString,
+        // e.g. when Collectors.joining combines partial results.
+        if (!delimiter.equals(other.delimiter)) {
+            other.compactElts();
+            return add(other.elts[0]);
+        }
+        // Read the other joiner's state first, it may be this joiner.
+        final String[] otherElts = other.elts;
+        final int otherSize = other.size;
+        final int otherLen = other.len;
+        int newSize = size + otherSize;
+        if (elts == null) {
+            elts = new String[Math.max(8, otherSize)];
+        } else {
+            if (newSize > elts.length)
+                elts = Arrays.copyOf(elts, Math.max(newSize, 2 * size));
+            len += delimiter.length();
+        }
+        System.arraycopy(otherElts, 0, elts, size, otherSize);
+        size = newSize;
+        len += otherLen;
+        return this;
     }
 
     private void compactElts() {
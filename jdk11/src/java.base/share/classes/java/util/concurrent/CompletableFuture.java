@@ -68,7 +68,7 @@ import java.util.function.Supplier;
  * <li>All <em>async</em> methods without an explicit Executor
  * argument are performed using the {@link ForkJoinPool#commonPool()}
  * (unless it does not support a parallelism level of at least two, in
- * which case, a new Thread is created to run each task).  This may be
+ * which case, tasks run on a small pool of threads).  This may be
  * overridden for non-static methods in subclasses by defining method
  * {@link #defaultExecutor()}. To simplify monitoring, debugging,
  * and tracking, all generated asynchronous tasks are instances of the
@@ -434,7 +434,9 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
      * support parallelism.
      */
     private static final Executor ASYNC_POOL = USE_COMMON_POOL ?
-        ForkJoinPool.commonPool() : new ThreadPerTaskExecutor();
+        // For desugar: reuse the idle threads of DesugarAsyncPool
+        // ForkJoinPool.commonPool() : new ThreadPerTaskExecutor();
+        ForkJoinPool.commonPool() : DesugarAsyncPool.instance();
 
     /** Fallback if ForkJoinPool.commonPool() cannot support parallelism */
     static final class ThreadPerTaskExecutor implements Executor {
@@ -2520,8 +2522,8 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
      * Returns the default Executor used for async methods that do not
      * specify an Executor. This class uses the {@link
      * ForkJoinPool#commonPool()} if it supports more than one
-     * parallel thread, or else an Executor using one thread per async
-     * task.  This method may be overridden in subclasses to return
+     * parallel thread, or else an Executor using a small pool of
+     * threads.  This method may be overridden in subclasses to return
      * an Executor that provides at least one independent thread.
      *
      * @return the executor
@@ -2736,26 +2738,35 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
      * cancelling tasks.
      */
     static final class Delayer {
-        static ScheduledFuture<?> delay(Runnable command, long delay,
-                                        TimeUnit unit) {
+        // For desugar: a timing wheel, which schedules and cancels in
+        // constant time, instead of a ScheduledThreadPoolExecutor
+        // static ScheduledFuture<?> delay(Runnable command, long delay,
+        //                                 TimeUnit unit) {
+        //     return delayer.schedule(command, delay, unit);
+        // }
+        //
+        // static final class DaemonThreadFactory implements ThreadFactory {
+        //     public Thread newThread(Runnable r) {
+        //         Thread t = new Thread(r);
+        //         t.setDaemon(true);
+        //         t.setName("CompletableFutureDelayScheduler");
+        //         return t;
+        //     }
+        // }
+        //
+        // static final ScheduledThreadPoolExecutor delayer;
+        // static {
+        //     (delayer = new ScheduledThreadPoolExecutor(
+        //         1, new DaemonThreadFactory())).
+        //         setRemoveOnCancelPolicy(true);
+        // }
+        static Future<?> delay(Runnable command, long delay,
+                               TimeUnit unit) {
             return delayer.schedule(command, delay, unit);
         }
 
-        static final class DaemonThreadFactory implements ThreadFactory {
-            public Thread newThread(Runnable r) {
-                Thread t = new Thread(r);
-                t.setDaemon(true);
-                t.setName("CompletableFutureDelayScheduler");
-                return t;
-            }
-        }
-
-        static final ScheduledThreadPoolExecutor delayer;
-        static {
-            (delayer = new ScheduledThreadPoolExecutor(
-                1, new DaemonThreadFactory())).
-                setRemoveOnCancelPolicy(true);
-        }
+        static final DesugarTimingWheel delayer =
+            new DesugarTimingWheel("CompletableFutureDelayScheduler");
     }
 
     // Little class-ified lambdas to better support monitoring
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2023 Google LLC
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Google designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Google in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package java.util.concurrent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * For desugar: The default executor of {@link CompletableFuture} and {@link SubmissionPublisher}
+ * when {@link ForkJoinPool#commonPool()} cannot support parallelism, instead of starting a thread
+ * per task. This class does not exist in the upstream OpenJDK.
+ *
+ * <p>Like a thread per task, every task starts running right away in a thread of its own, so that
+ * tasks waiting on each other always make progress. Tasks are never queued: a task is handed to a
+ * worker that finished its previous task and is idle, and a new daemon worker is started when none
+ * is. At most {@value #MAX_IDLE_WORKERS_PROPERTY} workers, {@value #DEFAULT_MAX_IDLE_WORKERS} by
+ * default, stay idle, each for at most {@value #KEEP_ALIVE_SECONDS} seconds, the others stop.
+ */
+final class DesugarAsyncPool implements Executor {
+
+    static final String MAX_IDLE_WORKERS_PROPERTY =
+        "desugar.java.util.concurrent.asyncPoolMaxIdleWorkers";
+
+    private static final int DEFAULT_MAX_IDLE_WORKERS = 4;
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    /** The slot of an idle worker waiting for a task. */
+    private static final Object WAITING = new Object();
+    /** The slot of a worker that stopped waiting and no longer accepts a task. */
+    private static final Object RETIRED = new Object();
+
+    /** Holder of the shared instance, created on first use. */
+    private static final class Holder {
+        static final DesugarAsyncPool INSTANCE = new DesugarAsyncPool(
+            positiveInteger(MAX_IDLE_WORKERS_PROPERTY, DEFAULT_MAX_IDLE_WORKERS),
+            TimeUnit.SECONDS.toNanos(KEEP_ALIVE_SECONDS));
+    }
+
+    /**
+     * Returns the shared executor.
+     */
+    static Executor instance() {
+        return Holder.INSTANCE;
+    }
+
+    private final int maxIdleWorkers;
+    private final long keepAliveNanos;
+
+    /** The idle workers, most recently idle first so that the others time out. */
+    private final ConcurrentLinkedDeque<Worker> idleWorkers = new ConcurrentLinkedDeque<>();
+
+    /** The number of idle workers, including the ones about to be added. */
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    private final AtomicInteger workerCount = new AtomicInteger();
+
+    DesugarAsyncPool(int maxIdleWorkers, long keepAliveNanos) {
+        this.maxIdleWorkers = maxIdleWorkers;
+        this.keepAliveNanos = keepAliveNanos;
+    }
+
+    public void execute(Runnable r) {
+        if (r == null)
+            throw new NullPointerException();
+        for (Worker w; (w = idleWorkers.pollFirst()) != null; ) {
+            idleCount.decrementAndGet();
+            if (w.slot.compareAndSet(WAITING, r)) {
+                LockSupport.unpark(w);
+                return;
+            }
+        }
+        new Worker(r).start();
+    }
+
+    private static int positiveInteger(String property, int defaultValue) {
+        Integer value = Integer.getInteger(property);
+        return (value != null && value > 0) ? value : defaultValue;
+    }
+
+    /** A daemon thread running tasks until it stays idle or too many workers are. */
+    final class Worker extends Thread {
+        /** WAITING while idle, then the task handed over, or RETIRED. */
+        final AtomicReference<Object> slot = new AtomicReference<>();
+        private Runnable firstTask;
+
+        Worker(Runnable firstTask) {
+            super("DesugarAsyncPool-worker-" + workerCount.incrementAndGet());
+            setDaemon(true);
+            this.firstTask = firstTask;
+        }
+
+        public void run() {
+            Runnable task = firstTask;
+            firstTask = null;
+            for (; task != null; task = awaitTask())
+                task.run();
+        }
+
+        /** Waits for the next task, or returns null if this worker should stop. */
+        private Runnable awaitTask() {
+            Thread.interrupted(); // don't pass an interrupt on to the next task
+            if (idleCount.incrementAndGet() > maxIdleWorkers) {
+                idleCount.decrementAndGet();
+                return null;
+            }
+            slot.set(WAITING);
+            idleWorkers.offerFirst(this);
+            long deadline = System.nanoTime() + keepAliveNanos;
+            for (;;) {
+                Object s = slot.get();
+                if (s != WAITING)
+                    return (Runnable) s;
+                long nanos = deadline - System.nanoTime();
+                if (nanos <= 0L) {
+                    if (slot.compareAndSet(WAITING, RETIRED)) {
+                        if (idleWorkers.removeFirstOccurrence(this))
+                            idleCount.decrementAndGet();
+                        return null;
+                    }
+                    // a task was handed over meanwhile
+                } else {
+                    LockSupport.parkNanos(this, nanos);
+                }
+            }
+        }
+    }
+}
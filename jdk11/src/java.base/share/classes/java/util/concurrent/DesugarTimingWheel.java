@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2023 Google LLC
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Google designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Google in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package java.util.concurrent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * For desugar: The delay scheduler of {@link CompletableFuture}, a hierarchical timing wheel that
+ * schedules and cancels tasks in constant time, instead of the binary heap of a
+ * ScheduledThreadPoolExecutor. This class does not exist in the upstream OpenJDK.
+ *
+ * <p>Time is divided in ticks of {@value #TICK_MILLIS_PROPERTY} milliseconds, {@value
+ * #DEFAULT_TICK_MILLIS} by default. A task runs on the scheduler thread at the first tick at or
+ * after its delay, so it may run up to one tick late but never early.
+ *
+ * <p>Threads scheduling or cancelling a task only add it to a lock-free queue. The scheduler thread
+ * moves the tasks from these queues into the wheel and runs the expired ones, it is the only thread
+ * that reads or writes the wheel. The wheel has a level per 6 bits of the tick of a deadline, of 64
+ * buckets each. A task is kept in the bucket of the lowest level whose higher bits its deadline
+ * shares with the current tick, and cascades down a level each time the ticks reach its bucket,
+ * until it expires from the lowest level. The scheduler thread does not wake up at ticks without
+ * tasks: it parks until the next tick at which a bucket expires or cascades, or until a task is
+ * scheduled before that tick. It also wakes up every {@value #CANCEL_BATCH} cancellations to remove
+ * the cancelled tasks from the wheel.
+ */
+final class DesugarTimingWheel {
+
+    static final String TICK_MILLIS_PROPERTY =
+        "desugar.java.util.concurrent.delayerTickMillis";
+
+    private static final int DEFAULT_TICK_MILLIS = 10;
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = (Long.SIZE + WHEEL_BITS - 1) / WHEEL_BITS;
+
+    /** Number of cancellations after which the scheduler thread removes cancelled tasks. */
+    private static final int CANCEL_BATCH = 64;
+
+    private final long tickNanos;
+    private final long startNanos = System.nanoTime();
+    private final Thread thread;
+
+    /** Tasks scheduled but not yet in the wheel. */
+    private final ConcurrentLinkedQueue<Task> scheduled = new ConcurrentLinkedQueue<>();
+
+    /** Tasks cancelled but maybe still in the wheel. */
+    private final ConcurrentLinkedQueue<Task> cancelled = new ConcurrentLinkedQueue<>();
+
+    /** The number of tasks cancelled so far. */
+    private final AtomicInteger cancelCount = new AtomicInteger();
+
+    /** The tick the scheduler thread is parked until, Long.MAX_VALUE if the wheel is empty. */
+    private volatile long parkedUntilTick;
+
+    // Only accessed by the scheduler thread.
+
+    /** The first task of each bucket, LEVELS rows of WHEEL_SIZE buckets. */
+    private final Task[] buckets = new Task[LEVELS * WHEEL_SIZE];
+
+    /** A bit per non-empty bucket, a word per level. */
+    private final long[] occupied = new long[LEVELS];
+
+    /** The last tick processed. */
+    private long currentTick;
+
+    /**
+     * Creates a timing wheel and starts its daemon scheduler thread.
+     *
+     * @param name the name of the scheduler thread
+     */
+    DesugarTimingWheel(String name) {
+        Integer tickMillis = Integer.getInteger(TICK_MILLIS_PROPERTY);
+        tickNanos = TimeUnit.MILLISECONDS.toNanos(
+            (tickMillis != null && tickMillis > 0) ? tickMillis : DEFAULT_TICK_MILLIS);
+        thread = new Thread(new Runnable() {
+            public void run() { DesugarTimingWheel.this.run(); }
+        }, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Schedules a command to run once after the given delay.
+     *
+     * @return a Future that cancels the command
+     */
+    Future<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        long elapsed = System.nanoTime() - startNanos;
+        long delayNanos = Math.max(0L, unit.toNanos(delay));
+        long deadline = (delayNanos < Long.MAX_VALUE - elapsed) ?
+            elapsed + delayNanos : Long.MAX_VALUE;
+        Task task = new Task(command,
+                             deadline / tickNanos + ((deadline % tickNanos != 0) ? 1 : 0));
+        scheduled.offer(task);
+        if (task.deadlineTick < parkedUntilTick)
+            LockSupport.unpark(thread);
+        return task;
+    }
+
+    /** A scheduled command, linked in the list of its bucket. */
+    final class Task extends FutureTask<Void> {
+        final long deadlineTick;
+        int bucket = -1;
+        Task prev;
+        Task next;
+
+        Task(Runnable command, long deadlineTick) {
+            super(command, null);
+            this.deadlineTick = deadlineTick;
+        }
+
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean result = super.cancel(mayInterruptIfRunning);
+            if (result) {
+                cancelled.offer(this);
+                if ((cancelCount.incrementAndGet() & (CANCEL_BATCH - 1)) == 0)
+                    LockSupport.unpark(thread);
+            }
+            return result;
+        }
+    }
+
+    private void run() {
+        for (;;) {
+            for (Task t; (t = cancelled.poll()) != null; ) {
+                remove(t);
+            }
+            long elapsed = System.nanoTime() - startNanos;
+            long tick = elapsed / tickNanos;
+            // Process the ticks at which buckets expire or cascade, the others have no tasks
+            for (long next; (next = nextEventTick()) <= tick; ) {
+                currentTick = next;
+                advance(next);
+            }
+            currentTick = Math.max(currentTick, tick);
+            for (Task t; (t = scheduled.poll()) != null; ) {
+                if (!t.isCancelled())
+                    add(t);
+            }
+            long next = nextEventTick();
+            parkedUntilTick = next;
+            if (scheduled.isEmpty()) {
+                if (next >= Long.MAX_VALUE / tickNanos)
+                    LockSupport.park(this);
+                else
+                    LockSupport.parkNanos(this, next * tickNanos - elapsed);
+            }
+            parkedUntilTick = 0L;
+        }
+    }
+
+    /**
+     * Returns the first tick after the current one at which a bucket expires or cascades, or
+     * Long.MAX_VALUE if the wheel is empty.
+     *
+     * <p>The buckets of a level all come after the bucket of the current tick in that level, and
+     * the ticks of the buckets of a level come before those of the levels above it.
+     */
+    private long nextEventTick() {
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = WHEEL_BITS * level;
+            int digit = (int) ((currentTick >>> shift) & WHEEL_MASK);
+            long later = occupied[level] & (-2L << digit);
+            if (later != 0L) {
+                long base = (level == LEVELS - 1) ? 0L :
+                    (currentTick >>> (shift + WHEEL_BITS)) << (shift + WHEEL_BITS);
+                return base + ((long) Long.numberOfTrailingZeros(later) << shift);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /** Processes a tick: cascades the buckets the tick reaches, then expires its tasks. */
+    private void advance(long tick) {
+        if ((tick & WHEEL_MASK) == 0) {
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((tick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                    for (Task t = detach(bucketOf(tick, level)); t != null; ) {
+                        Task next = t.next;
+                        t.next = null;
+                        add(t);
+                        t = next;
+                    }
+                }
+            }
+        }
+        for (Task t = detach(bucketOf(tick, 0)); t != null; ) {
+            Task next = t.next;
+            t.next = null;
+            t.run();
+            t = next;
+        }
+    }
+
+    private static int bucketOf(long tick, int level) {
+        return level * WHEEL_SIZE + (int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+    }
+
+    /** Adds a task to its bucket, or runs it if it is due. */
+    private void add(Task t) {
+        long deadline = t.deadlineTick;
+        long current = currentTick;
+        if (deadline <= current) {
+            t.run();
+            return;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 &&
+               (deadline >>> (WHEEL_BITS * (level + 1))) !=
+               (current >>> (WHEEL_BITS * (level + 1))))
+            level++;
+        int bucket = bucketOf(deadline, level);
+        Task first = buckets[bucket];
+        t.bucket = bucket;
+        t.prev = null;
+        t.next = first;
+        if (first != null)
+            first.prev = t;
+        buckets[bucket] = t;
+        occupied[level] |= 1L << (bucket & WHEEL_MASK);
+    }
+
+    /** Removes a task from its bucket, if it is in one. */
+    private void remove(Task t) {
+        int bucket = t.bucket;
+        if (bucket < 0)
+            return;
+        Task prev = t.prev, next = t.next;
+        if (prev == null) {
+            buckets[bucket] = next;
+            if (next == null)
+                occupied[bucket >>> WHEEL_BITS] &= ~(1L << (bucket & WHEEL_MASK));
+        } else {
+            prev.next = next;
+        }
+        if (next != null)
+            next.prev = prev;
+        t.bucket = -1;
+        t.prev = t.next = null;
+    }
+
+    /** Empties a bucket, returning its tasks still linked by their next fields. */
+    private Task detach(int bucket) {
+        Task first = buckets[bucket];
+        if (first != null) {
+            buckets[bucket] = null;
+            occupied[bucket >>> WHEEL_BITS] &= ~(1L << (bucket & WHEEL_MASK));
+            for (Task t = first; t != null; t = t.next) {
+                t.bucket = -1;
+                t.prev = null;
+            }
+        }
+        return first;
+    }
+}
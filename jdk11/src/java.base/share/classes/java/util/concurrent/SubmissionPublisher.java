@@ -211,7 +211,9 @@ public class SubmissionPublisher<T> implements Publisher<T>,
      */
     private static final Executor ASYNC_POOL =
         (ForkJoinPool.getCommonPoolParallelism() > 1) ?
-        ForkJoinPool.commonPool() : new ThreadPerTaskExecutor();
+        // For desugar: reuse the idle threads of DesugarAsyncPool
+        // ForkJoinPool.commonPool() : new ThreadPerTaskExecutor();
+        ForkJoinPool.commonPool() : DesugarAsyncPool.instance();
 
     /** Fallback if ForkJoinPool.commonPool() cannot support parallelism */
     private static final class ThreadPerTaskExecutor implements Executor {
@@ -304,7 +306,7 @@ public class SubmissionPublisher<T> implements Publisher<T>,
      * Creates a new SubmissionPublisher using the {@link
      * ForkJoinPool#commonPool()} for async delivery to subscribers
      * (unless it does not support a parallelism level of at least two,
-     * in which case, a new Thread is created to run each task), with
+     * in which case, tasks run on a small pool of threads), with
      * maximum buffer capacity of {@link Flow#defaultBufferSize}, and no
      * handler for Subscriber exceptions in method {@link
      * Flow.Subscriber#onNext(Object) onNext}.
@@ -972,9 +972,11 @@ public class ThreadLocalRandom extends Random {
      * can be used to force initialization on zero return.
      */
     static final int getProbe() {
-        // For desugar: use actual ThreadLocal instead of Thread fields
+        // For desugar: use the probe table instead of Thread fields
         // return UNSAFE.getInt(Thread.currentThread(), PROBE);
-        return instances.get().threadLocalRandomProbe;
+        int h = threadHash();
+        int probe = probes[probeIndex(h)] ^ h;
+        return (probe == 0) ? 1 : probe; // zero would ask for localInit
     }
 
     /**
@@ -985,12 +987,26 @@ public class ThreadLocalRandom extends Random {
         probe ^= probe << 13;   // xorshift
         probe ^= probe >>> 17;
         probe ^= probe << 5;
-        // For desugar: use actual ThreadLocal instead of Thread fields
+        // For desugar: use the probe table instead of Thread fields
         // UNSAFE.putInt(Thread.currentThread(), PROBE, probe);
-        instances.get().threadLocalRandomProbe = probe;
+        int h = threadHash();
+        probes[probeIndex(h)] = probe ^ h;
         return probe;
     }
 
+    /**
+     * For desugar: Returns the scrambled id of the current thread, which
+     * selects its slot in the probe table. Thread ids are sequential, so
+     * the multiplicative hash spreads live threads over distinct slots.
+     */
+    private static int threadHash() {
+        return (int) Thread.currentThread().getId() * PROBE_INCREMENT;
+    }
+
+    private static int probeIndex(int h) {
+        return (h >>> (Integer.SIZE - PROBE_SLOT_BITS)) << PROBE_SLOT_SHIFT;
+    }
+
     /**
      * Returns the pseudo-randomly initialized or updated secondary seed.
      */
@@ -1120,6 +1136,20 @@ public class ThreadLocalRandom extends Random {
     /** Generates per-thread initialization/probe field */
     private static final AtomicInteger probeGenerator = new AtomicInteger();
 
+    // For desugar: The probes of getProbe and advanceProbe, which
+    // ConcurrentHashMap and ForkJoinPool read on every contended update,
+    // are kept in a table indexed by a hash of the thread id rather
+    // than in the ThreadLocal instance, saving a ThreadLocal lookup.
+    // A slot is xored with the hash, so threads sharing a slot still
+    // see distinct probes. Races on a slot only make probes move more,
+    // which is harmless for a hash hint. Slots are a cache line apart,
+    // and the probe field of the instance is only the initialization
+    // flag of current().
+    private static final int PROBE_SLOT_BITS = 6;
+    private static final int PROBE_SLOT_SHIFT = 4; // 16 ints per slot
+    private static final int[] probes =
+        new int[1 << (PROBE_SLOT_BITS + PROBE_SLOT_SHIFT)];
+
     /** The common ThreadLocalRandom */
     // For desugar: use actual ThreadLocal instead of Thread fields
     // static final ThreadLocalRandom instance = new ThreadLocalRandom();
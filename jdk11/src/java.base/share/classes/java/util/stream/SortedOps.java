@@ -27,6 +27,7 @@ package java.util.stream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.DesugarArraysParallelSortHelpers;
 import java.util.Objects;
 import java.util.Spliterator;
 import java.util.function.IntFunction;
@@ -155,9 +156,10 @@ final class SortedOps {
             else {
                 // @@@ Weak two-pass parallel implementation; parallel collect, parallel sort
                 T[] flattenedData = helper.evaluate(spliterator, true, generator).asArray(generator);
-                // For desugar: TODO(b/73557039): support Arrays.parallelSort
+                // For desugar: ArraysParallelSortHelpers is not part of the library.
                 // Arrays.parallelSort(flattenedData, comparator);
-                Arrays.sort(flattenedData, comparator);
+                DesugarArraysParallelSortHelpers.parallelSort(
+                        flattenedData, 0, flattenedData.length, comparator);
                 return Nodes.node(flattenedData);
             }
         }
@@ -195,9 +197,9 @@ final class SortedOps {
                 Node.OfInt n = (Node.OfInt) helper.evaluate(spliterator, true, generator);
 
                 int[] content = n.asPrimitiveArray();
-                // For desugar: TODO(b/73557039): support Arrays.parallelSort
+                // For desugar: ArraysParallelSortHelpers is not part of the library.
                 // Arrays.parallelSort(content);
-                Arrays.sort(content);
+                DesugarArraysParallelSortHelpers.parallelSort(content, 0, content.length);
 
                 return Nodes.node(content);
             }
@@ -236,9 +238,9 @@ final class SortedOps {
                 Node.OfLong n = (Node.OfLong) helper.evaluate(spliterator, true, generator);
 
                 long[] content = n.asPrimitiveArray();
-                // For desugar: TODO(b/73557039): support Arrays.parallelSort
+                // For desugar: ArraysParallelSortHelpers is not part of the library.
                 // Arrays.parallelSort(content);
-                Arrays.sort(content);
+                DesugarArraysParallelSortHelpers.parallelSort(content, 0, content.length);
 
                 return Nodes.node(content);
             }
@@ -277,9 +279,9 @@ final class SortedOps {
                 Node.OfDouble n = (Node.OfDouble) helper.evaluate(spliterator, true, generator);
 
                 double[] content = n.asPrimitiveArray();
-                // For desugar: TODO(b/73557039): support Arrays.parallelSort
+                // For desugar: ArraysParallelSortHelpers is not part of the library.
                 // Arrays.parallelSort(content);
-                Arrays.sort(content);
+                DesugarArraysParallelSortHelpers.parallelSort(content, 0, content.length);
 
                 return Nodes.node(content);
             }
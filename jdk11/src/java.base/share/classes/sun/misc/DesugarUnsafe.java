@@ -65,10 +65,30 @@ public final class DesugarUnsafe {
     // private static final Unsafe theUnsafe = new Unsafe();
     private final Unsafe theUnsafe;
 
+    // For desugar: whether the runtime's Unsafe implements the atomic operations natively, probed
+    // once since they only exist on newer runtimes. The CAS-based loops below are used otherwise.
+    private static final boolean NATIVE_GET_AND_ADD =
+        hasUnsafeMethod("getAndAddInt", Object.class, long.class, int.class)
+            && hasUnsafeMethod("getAndAddLong", Object.class, long.class, long.class);
+    private static final boolean NATIVE_GET_AND_SET =
+        hasUnsafeMethod("getAndSetInt", Object.class, long.class, int.class)
+            && hasUnsafeMethod("getAndSetLong", Object.class, long.class, long.class)
+            && hasUnsafeMethod("getAndSetObject", Object.class, long.class, Object.class);
+
     DesugarUnsafe(Unsafe theUnsafe) {
         this.theUnsafe = theUnsafe;
     }
 
+    // For desugar: capability probe for Unsafe methods missing from older runtimes.
+    private static boolean hasUnsafeMethod(String name, Class<?>... parameterTypes) {
+        try {
+            Unsafe.class.getMethod(name, parameterTypes);
+            return true;
+        } catch (NoSuchMethodException | SecurityException e) {
+            return false;
+        }
+    }
+
     private static Field getUnsafeField() {
         try {
             return Unsafe.class.getDeclaredField("theUnsafe");
@@ -115,7 +135,8 @@ public final class DesugarUnsafe {
     }
 
   // The following contain CAS-based Java implementations used on
-  // platforms not supporting native instructions
+  // platforms not supporting native instructions. For desugar: the native
+  // implementations are used when the runtime's Unsafe provides them.
 
   /**
    * Atomically adds the given value to the current value of a field or array element within the
@@ -129,6 +150,9 @@ public final class DesugarUnsafe {
    */
   // For desugar: static so method can exist outside original class
   public int getAndAddInt(Object o, long offset, int delta) {
+        if (NATIVE_GET_AND_ADD) {
+            return theUnsafe.getAndAddInt(o, offset, delta);
+        }
         int v;
         do {
             v = theUnsafe.getIntVolatile(o, offset);
@@ -149,6 +173,9 @@ public final class DesugarUnsafe {
      */
     // For desugar: static so method can exist outside original class
     public long getAndAddLong(Object o, long offset, long delta) {
+        if (NATIVE_GET_AND_ADD) {
+            return theUnsafe.getAndAddLong(o, offset, delta);
+        }
         long v;
         do {
             v = theUnsafe.getLongVolatile(o, offset);
@@ -169,6 +196,9 @@ public final class DesugarUnsafe {
      */
     // For desugar: static so method can exist outside original class
     public int getAndSetInt(Object o, long offset, int newValue) {
+        if (NATIVE_GET_AND_SET) {
+            return theUnsafe.getAndSetInt(o, offset, newValue);
+        }
         int v;
         do {
             v = theUnsafe.getIntVolatile(o, offset);
@@ -189,6 +219,9 @@ public final class DesugarUnsafe {
      */
     // For desugar: static so method can exist outside original class
     public long getAndSetLong(Object o, long offset, long newValue) {
+        if (NATIVE_GET_AND_SET) {
+            return theUnsafe.getAndSetLong(o, offset, newValue);
+        }
         long v;
         do {
             v = theUnsafe.getLongVolatile(o, offset);
@@ -209,6 +242,9 @@ public final class DesugarUnsafe {
      */
     // For desugar: static so method can exist outside original class
     public Object getAndSetObject(Object o, long offset, Object newValue) {
+        if (NATIVE_GET_AND_SET) {
+            return theUnsafe.getAndSetObject(o, offset, newValue);
+        }
         Object v;
         do {
             v = theUnsafe.getObjectVolatile(o, offset);
@@ -291,13 +327,16 @@ public final class DesugarUnsafe {
     }
 
     /** Acquire version of {@link Unsafe#getObjectVolatile(Object, long)} */
+    // For desugar: Unsafe has no weaker load than a volatile one, which also has acquire semantics.
     public Object getObjectAcquire(Object o, long offset) {
         return theUnsafe.getObjectVolatile(o, offset);
     }
 
     /** Release version of {@link Unsafe#putObjectVolatile(Object, long, Object)} */
+    // For desugar: an ordered (lazy) store has release semantics. Unlike the atomics above,
+    // putOrderedObject exists on every supported runtime, as putOrderedObject below assumes too.
     public void putObjectRelease(Object o, long offset, Object x) {
-        theUnsafe.putObjectVolatile(o, offset, x);
+        theUnsafe.putOrderedObject(o, offset, x);
     }
 
     /**
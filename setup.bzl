@@ -32,6 +32,8 @@ def desugar_jdk_libs_setup():
             "com.google.auto.value:auto-value-annotations:1.9",
             "com.google.code.findbugs:jsr305:3.0.2",
             "com.google.guava:guava:23.0",
+            "org.openjdk.jmh:jmh-core:1.37",
+            "org.openjdk.jmh:jmh-generator-annprocess:1.37",
             "org.ow2.asm:asm:9.0",
             "org.ow2.asm:asm-commons:9.0",
             "org.ow2.asm:asm-tree:9.0",
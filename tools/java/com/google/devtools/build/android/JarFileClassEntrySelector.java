@@ -62,6 +62,7 @@ public final class JarFileClassEntrySelector {
     "java/lang/AbstractStringBuilder",
     "java/lang/CharSequence",
     "java/lang/DesugarCharacter",
+    "java/lang/DesugarStringSpliterators",
     "java/lang/FunctionalInterface",
     "java/lang/Iterable",
     "java/lang/ReflectiveOperationException",
@@ -0,0 +1,72 @@
+package com.google.devtools.build.android.benchmarks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks of ConcurrentHashMap and CompletableFuture as shipped in desugar_jdk_libs. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentBenchmark {
+
+  private static final int KEYS = 1 << 12;
+  private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+  private ConcurrentHashMap<Integer, Integer> map;
+
+  @Setup
+  public void setUp() {
+    map = new ConcurrentHashMap<>();
+    for (int i = 0; i < KEYS; i++) {
+      map.put(i, i);
+    }
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Object concurrentHashMapGet() {
+    return map.get(ThreadLocalRandom.current().nextInt(KEYS));
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Object concurrentHashMapMerge() {
+    return map.merge(ThreadLocalRandom.current().nextInt(KEYS), 1, Integer::sum);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Object concurrentHashMapComputeIfAbsent() {
+    return map.computeIfAbsent(ThreadLocalRandom.current().nextInt(2 * KEYS), k -> k);
+  }
+
+  @Benchmark
+  public Object completableFutureChain() {
+    return CompletableFuture.supplyAsync(() -> 1, DIRECT_EXECUTOR)
+        .thenApply(v -> v + 1)
+        .thenCombine(CompletableFuture.completedFuture(2), Integer::sum)
+        .join();
+  }
+
+  @Benchmark
+  public Object completableFutureAsync() {
+    return CompletableFuture.supplyAsync(() -> 1).thenApplyAsync(v -> v + 1).join();
+  }
+}
@@ -0,0 +1,72 @@
+package com.google.devtools.build.android.benchmarks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of updates contended by 8 to 32 threads, which go through the probes of
+ * ThreadLocalRandom: the element count of ConcurrentHashMap and the cells of LongAdder. LongAdder
+ * is not part of desugar_jdk_libs and measures the platform probes in both reports.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContendedUpdateBenchmark {
+
+  private static final int KEYS = 1 << 16;
+
+  private ConcurrentHashMap<Integer, Integer> map;
+  private LongAdder adder;
+
+  @Setup
+  public void setUp() {
+    map = new ConcurrentHashMap<>(2 * KEYS);
+    adder = new LongAdder();
+  }
+
+  private Object put() {
+    int key = ThreadLocalRandom.current().nextInt(KEYS);
+    // Alternates between adding and removing, so that every update changes the element count.
+    return map.remove(key) == null ? map.put(key, key) : null;
+  }
+
+  @Benchmark
+  @Threads(8)
+  public Object concurrentHashMapPut8Threads() {
+    return put();
+  }
+
+  @Benchmark
+  @Threads(32)
+  public Object concurrentHashMapPut32Threads() {
+    return put();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public void longAdderIncrement8Threads() {
+    adder.increment();
+  }
+
+  @Benchmark
+  @Threads(32)
+  public void longAdderIncrement32Threads() {
+    adder.increment();
+  }
+}
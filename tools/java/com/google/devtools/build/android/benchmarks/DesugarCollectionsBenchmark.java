@@ -0,0 +1,92 @@
+package com.google.devtools.build.android.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the synchronized map returned by java.util.DesugarCollections, which backs
+ * Collections.synchronizedMap in desugared code. On the host JDK, where the class does not exist,
+ * Collections.synchronizedMap is measured instead.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DesugarCollectionsBenchmark {
+
+  private static final int KEYS = 1 << 10;
+
+  private Map<Integer, Integer> map;
+  private int key;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setUp() throws Throwable {
+    Map<Integer, Integer> backing = new HashMap<>();
+    for (int i = 0; i < KEYS; i++) {
+      backing.put(i, i);
+    }
+    map = (Map<Integer, Integer>) synchronizedMapFactory().invoke(backing);
+  }
+
+  private static MethodHandle synchronizedMapFactory() throws ReflectiveOperationException {
+    Class<?> collections;
+    try {
+      collections = Class.forName("java.util.DesugarCollections");
+    } catch (ClassNotFoundException e) {
+      collections = Collections.class;
+    }
+    return MethodHandles.publicLookup()
+        .findStatic(
+            collections, "synchronizedMap", MethodType.methodType(Map.class, Map.class));
+  }
+
+  private int nextKey() {
+    key = (key + 7) & (KEYS - 1);
+    return key;
+  }
+
+  @Benchmark
+  public Object get() {
+    return map.get(nextKey());
+  }
+
+  @Benchmark
+  public Object getOrDefault() {
+    return map.getOrDefault(nextKey() + KEYS, -1);
+  }
+
+  @Benchmark
+  public Object merge() {
+    return map.merge(nextKey(), 1, Integer::sum);
+  }
+
+  @Benchmark
+  public Object computeIfPresent() {
+    return map.computeIfPresent(nextKey(), (k, v) -> v + 1);
+  }
+
+  @Benchmark
+  public int forEach() {
+    int[] sum = new int[1];
+    map.forEach((k, v) -> sum[0] += v);
+    return sum[0];
+  }
+}
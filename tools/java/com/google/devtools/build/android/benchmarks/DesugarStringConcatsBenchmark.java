@@ -0,0 +1,103 @@
+package com.google.devtools.build.android.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of java.lang.DesugarStringConcats.concat, which backs string concatenation in
+ * desugared code, against the per-call recipe scanning loop it replaced. On the host JDK, where the
+ * class does not exist, concat measures the scanning loop as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DesugarStringConcatsBenchmark {
+
+  /** Arguments of log-style messages: only strings, only boxed primitives or a mix with null. */
+  @Param({"strings", "primitives", "mixed"})
+  public String shape;
+
+  private Object[] args;
+  private String recipe;
+  private Object[] constants;
+  private MethodHandle concat;
+
+  @Setup
+  public void setUp() throws ReflectiveOperationException {
+    switch (shape) {
+      case "strings":
+        args = new Object[] {"request", "GET", "/index.html"};
+        break;
+      case "primitives":
+        args = new Object[] {42, 1234567890123L, 'x', true};
+        break;
+      case "mixed":
+        args = new Object[] {"latency", 17, 3.5d, null};
+        break;
+      default:
+        throw new IllegalArgumentException(shape);
+    }
+    StringBuilder text = new StringBuilder("tag=");
+    for (int i = 0; i < args.length; i++) {
+      text.append(i == 0 ? "" : ", ").append('k').append(i).append('=').append('\1');
+    }
+    recipe = text.append(" \2").toString();
+    constants = new Object[] {"[end]"};
+    concat = concatMethod();
+  }
+
+  private static MethodHandle concatMethod() throws ReflectiveOperationException {
+    MethodType type =
+        MethodType.methodType(String.class, Object[].class, String.class, Object[].class);
+    try {
+      return MethodHandles.publicLookup()
+          .findStatic(Class.forName("java.lang.DesugarStringConcats"), "concat", type);
+    } catch (ClassNotFoundException e) {
+      return MethodHandles.lookup()
+          .findStatic(DesugarStringConcatsBenchmark.class, "recipeScanningLoop", type);
+    }
+  }
+
+  @Benchmark
+  public String concat() throws Throwable {
+    return (String) concat.invokeExact(args, recipe, constants);
+  }
+
+  @Benchmark
+  public String recipeScanningLoop() {
+    return recipeScanningLoop(args, recipe, constants);
+  }
+
+  /** The implementation of DesugarStringConcats.concat before recipes were compiled and cached. */
+  private static String recipeScanningLoop(
+      Object[] runtimeTexts, String recipe, Object[] constants) {
+    StringBuilder stringBuilder = new StringBuilder();
+    for (int i = 0, runTimeTextIndex = 0, constantIndex = 0; i < recipe.length(); i++) {
+      char c = recipe.charAt(i);
+      if (c == '\1') {
+        stringBuilder.append(runtimeTexts[runTimeTextIndex++]);
+      } else if (c == '\2') {
+        stringBuilder.append(constants[constantIndex++]);
+      } else {
+        stringBuilder.append(c);
+      }
+    }
+    return stringBuilder.toString();
+  }
+}
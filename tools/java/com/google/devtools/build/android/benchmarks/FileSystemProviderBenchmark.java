@@ -0,0 +1,123 @@
+package com.google.devtools.build.android.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the desugar.sun.nio.fs file system provider. On the host JDK, where the provider
+ * does not exist, the default file system provider is measured instead.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileSystemProviderBenchmark {
+
+  private static final int FILES = 64;
+  private static final int FILE_SIZE = 64 * 1024;
+
+  private FileSystemProvider provider;
+  private Path directory;
+  private Path source;
+  private Path target;
+  private ByteBuffer buffer;
+
+  @Setup
+  public void setUp() throws Exception {
+    provider = desugarProvider();
+    Path tmp = Files.createTempDirectory("FileSystemProviderBenchmark");
+    // Paths of the desugared provider are created from its file system.
+    directory = provider == FileSystems.getDefault().provider() ? tmp : providerPath(tmp);
+    for (int i = 0; i < FILES; i++) {
+      Files.write(tmp.resolve("file" + i), new byte[FILE_SIZE]);
+    }
+    source = directory.resolve("file0");
+    target = directory.resolve("copy");
+    buffer = ByteBuffer.allocate(FILE_SIZE);
+  }
+
+  private static FileSystemProvider desugarProvider() throws ReflectiveOperationException {
+    Class<?> providerClass;
+    try {
+      providerClass = Class.forName("desugar.sun.nio.fs.DesugarLinuxFileSystemProvider");
+    } catch (ClassNotFoundException e) {
+      return FileSystems.getDefault().provider();
+    }
+    return (FileSystemProvider) providerClass.getMethod("create").invoke(null);
+  }
+
+  private Path providerPath(Path path) {
+    return provider.getFileSystem(URI.create("file:///")).getPath(path.toString());
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    try (DirectoryStream<Path> entries = provider.newDirectoryStream(directory, p -> true)) {
+      for (Path entry : entries) {
+        provider.delete(entry);
+      }
+    }
+    provider.delete(directory);
+  }
+
+  @Benchmark
+  public int listDirectory() throws IOException {
+    int count = 0;
+    try (DirectoryStream<Path> entries = provider.newDirectoryStream(directory, p -> true)) {
+      for (Path unused : entries) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  public Object readAttributes() throws IOException {
+    return provider.readAttributes(source, BasicFileAttributes.class);
+  }
+
+  @Benchmark
+  public int readFile() throws IOException {
+    buffer.clear();
+    try (SeekableByteChannel channel =
+        provider.newByteChannel(source, EnumSet.of(StandardOpenOption.READ))) {
+      int total = 0;
+      while (channel.read(buffer) > 0) {
+        total += buffer.position();
+        buffer.clear();
+      }
+      return total;
+    }
+  }
+
+  @Benchmark
+  public Path copyFile() throws IOException {
+    provider.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+    return target;
+  }
+}
@@ -0,0 +1,85 @@
+package com.google.devtools.build.android.benchmarks;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneRules;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks of the java.time classes shipped in desugar_jdk_libs. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JavaTimeBenchmark {
+
+  @Param({"UTC", "America/New_York", "Asia/Kolkata"})
+  public String zone;
+
+  private ZoneId zoneId;
+  private ZoneRules rules;
+  private Instant instant;
+  private LocalDateTime localDateTime;
+  private DateTimeFormatter formatter;
+  private String formatted;
+
+  @Setup
+  public void setUp() {
+    zoneId = ZoneId.of(zone);
+    rules = zoneId.getRules();
+    instant = Instant.parse("2021-03-14T06:59:59.123456789Z");
+    localDateTime = LocalDateTime.ofInstant(instant, zoneId);
+    formatter = DateTimeFormatter.ISO_ZONED_DATE_TIME;
+    formatted = formatter.format(ZonedDateTime.ofInstant(instant, zoneId));
+  }
+
+  @Benchmark
+  public Object zoneIdOf() {
+    return ZoneId.of(zone);
+  }
+
+  @Benchmark
+  public Object getOffset() {
+    return rules.getOffset(instant);
+  }
+
+  @Benchmark
+  public Object zonedDateTimeOfInstant() {
+    return ZonedDateTime.ofInstant(instant, zoneId);
+  }
+
+  @Benchmark
+  public Object zonedDateTimeOfLocal() {
+    return ZonedDateTime.of(localDateTime, zoneId);
+  }
+
+  @Benchmark
+  public Object format() {
+    return formatter.format(ZonedDateTime.ofInstant(instant, zoneId));
+  }
+
+  @Benchmark
+  public Object parse() {
+    return ZonedDateTime.parse(formatted, formatter);
+  }
+
+  @Benchmark
+  public Object ofPattern() {
+    return DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS VV");
+  }
+}
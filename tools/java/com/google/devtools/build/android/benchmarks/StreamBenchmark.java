@@ -0,0 +1,69 @@
+package com.google.devtools.build.android.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks of the java.util.stream classes shipped in desugar_jdk_libs. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StreamBenchmark {
+
+  @Param({"100", "10000"})
+  public int size;
+
+  private List<Integer> values;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    values = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      values.add(random.nextInt(size));
+    }
+  }
+
+  @Benchmark
+  public long intStreamSum() {
+    return IntStream.range(0, size).mapToLong(i -> i * 31L).sum();
+  }
+
+  @Benchmark
+  public Object filterMapCollect() {
+    return values.stream().filter(v -> (v & 1) == 0).map(v -> v * 3).collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public Object sorted() {
+    return values.stream().sorted().collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public Map<Integer, Long> groupingByCounting() {
+    return values.stream().collect(Collectors.groupingBy(v -> v % 16, Collectors.counting()));
+  }
+
+  @Benchmark
+  public long parallelSum() {
+    return values.parallelStream().mapToLong(Integer::longValue).sum();
+  }
+}
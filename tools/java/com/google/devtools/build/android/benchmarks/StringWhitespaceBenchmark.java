@@ -0,0 +1,106 @@
+package com.google.devtools.build.android.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the white space methods of java.lang.DesugarString, which back String.strip and
+ * String.isBlank in desugared code. On the host JDK, where the class does not exist, the String
+ * methods of JDK 11 are measured instead.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StringWhitespaceBenchmark {
+
+  /** Fields as found in CSV or JSON input: trimmed, padded, blank or padded with non-ASCII. */
+  @Param({"trimmed", "padded", "blank", "unicodePadded"})
+  public String shape;
+
+  @Param({"16", "256"})
+  public int length;
+
+  private String value;
+  private MethodHandle strip;
+  private MethodHandle stripLeading;
+  private MethodHandle stripTrailing;
+  private MethodHandle isBlank;
+
+  @Setup
+  public void setUp() throws ReflectiveOperationException {
+    StringBuilder text = new StringBuilder(length);
+    for (int i = 0; text.length() < length; i++) {
+      text.append((char) ('a' + i % 26));
+    }
+    String word = text.toString();
+    switch (shape) {
+      case "trimmed":
+        value = word;
+        break;
+      case "padded":
+        value = "  \t" + word + " \r\n";
+        break;
+      case "blank":
+        value = " \t".repeat(length / 2);
+        break;
+      case "unicodePadded":
+        value = "\u3000  " + word + " \u2003";
+        break;
+      default:
+        throw new IllegalArgumentException(shape);
+    }
+    strip = stringMethod("strip", String.class);
+    stripLeading = stringMethod("stripLeading", String.class);
+    stripTrailing = stringMethod("stripTrailing", String.class);
+    isBlank = stringMethod("isBlank", boolean.class);
+  }
+
+  private static MethodHandle stringMethod(String name, Class<?> returnType)
+      throws ReflectiveOperationException {
+    MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+    try {
+      return lookup.findStatic(
+          Class.forName("java.lang.DesugarString"),
+          name,
+          MethodType.methodType(returnType, String.class));
+    } catch (ClassNotFoundException e) {
+      return lookup.findVirtual(String.class, name, MethodType.methodType(returnType));
+    }
+  }
+
+  @Benchmark
+  public Object strip() throws Throwable {
+    return (String) strip.invokeExact(value);
+  }
+
+  @Benchmark
+  public Object stripLeading() throws Throwable {
+    return (String) stripLeading.invokeExact(value);
+  }
+
+  @Benchmark
+  public Object stripTrailing() throws Throwable {
+    return (String) stripTrailing.invokeExact(value);
+  }
+
+  @Benchmark
+  public boolean isBlank() throws Throwable {
+    return (boolean) isBlank.invokeExact(value);
+  }
+}
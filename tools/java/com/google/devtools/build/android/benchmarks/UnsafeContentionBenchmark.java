@@ -0,0 +1,133 @@
+package com.google.devtools.build.android.benchmarks;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the atomics of sun.misc.DesugarUnsafe, which back the atomic classes of
+ * desugar_jdk_libs, with 1 and 8 threads updating the same field: getAndAddInt and getAndSetInt,
+ * which use the runtime's native operations when it has them, and the compare-and-swap loop they
+ * fall back to otherwise. On the host JDK, where the class does not exist, sun.misc.Unsafe is
+ * measured instead.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UnsafeContentionBenchmark {
+
+  private volatile int value;
+
+  private long valueOffset;
+  private MethodHandle getAndAddInt;
+  private MethodHandle getAndSetInt;
+  private MethodHandle getIntVolatile;
+  private MethodHandle compareAndSwapInt;
+
+  @Setup
+  public void setUp() throws Throwable {
+    Class<?> unsafeClass;
+    Object unsafe;
+    try {
+      unsafeClass = Class.forName("sun.misc.DesugarUnsafe");
+      unsafe = unsafeClass.getMethod("getUnsafe").invoke(null);
+    } catch (ClassNotFoundException e) {
+      unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field field = unsafeClass.getDeclaredField("theUnsafe");
+      field.setAccessible(true);
+      unsafe = field.get(null);
+    }
+    MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+    valueOffset =
+        (long)
+            lookup
+                .findVirtual(unsafeClass, "objectFieldOffset", methodType(long.class, Field.class))
+                .invoke(unsafe, UnsafeContentionBenchmark.class.getDeclaredField("value"));
+    MethodType update = methodType(int.class, Object.class, long.class, int.class);
+    getAndAddInt = lookup.findVirtual(unsafeClass, "getAndAddInt", update).bindTo(unsafe);
+    getAndSetInt = lookup.findVirtual(unsafeClass, "getAndSetInt", update).bindTo(unsafe);
+    getIntVolatile =
+        lookup
+            .findVirtual(
+                unsafeClass, "getIntVolatile", methodType(int.class, Object.class, long.class))
+            .bindTo(unsafe);
+    compareAndSwapInt =
+        lookup
+            .findVirtual(
+                unsafeClass,
+                "compareAndSwapInt",
+                methodType(boolean.class, Object.class, long.class, int.class, int.class))
+            .bindTo(unsafe);
+  }
+
+  private int getAndAddInt() throws Throwable {
+    return (int) getAndAddInt.invokeExact((Object) this, valueOffset, 1);
+  }
+
+  private int getAndSetInt() throws Throwable {
+    return (int) getAndSetInt.invokeExact((Object) this, valueOffset, 1);
+  }
+
+  /** The loop DesugarUnsafe.getAndAddInt runs on runtimes without a native getAndAddInt. */
+  private int casLoopGetAndAddInt() throws Throwable {
+    int v;
+    do {
+      v = (int) getIntVolatile.invokeExact((Object) this, valueOffset);
+    } while (!(boolean) compareAndSwapInt.invokeExact((Object) this, valueOffset, v, v + 1));
+    return v;
+  }
+
+  @Benchmark
+  @Threads(1)
+  public int getAndAddInt1Thread() throws Throwable {
+    return getAndAddInt();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public int getAndAddInt8Threads() throws Throwable {
+    return getAndAddInt();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public int getAndSetInt1Thread() throws Throwable {
+    return getAndSetInt();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public int getAndSetInt8Threads() throws Throwable {
+    return getAndSetInt();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public int casLoopGetAndAddInt1Thread() throws Throwable {
+    return casLoopGetAndAddInt();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public int casLoopGetAndAddInt8Threads() throws Throwable {
+    return casLoopGetAndAddInt();
+  }
+}
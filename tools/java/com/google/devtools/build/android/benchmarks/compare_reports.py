@@ -0,0 +1,105 @@
+#!/usr/bin/env python3
+# Copyright 2023 Google LLC
+#
+# This program is free software; you can redistribute it and/or
+# modify it under the terms of the GNU General Public License
+# version 2 as published by the Free Software Foundation.
+#
+# This program is distributed in the hope that it will be useful,
+# but WITHOUT ANY WARRANTY; without even the implied warranty of
+# MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+# GNU General Public License for more details.
+
+"""Compare the JMH CSV reports of the host JDK and of desugar_jdk_libs.
+"""
+
+from __future__ import print_function
+import argparse
+import csv
+import sys
+
+# Modes where a higher score is better, the others report times per operation.
+THROUGHPUT_MODES = ('thrpt',)
+
+
+def read_report(report_file):
+  """Returns the rows of a JMH CSV report keyed by benchmark and parameters."""
+  result = {}
+  with open(report_file, newline='') as f:
+    for row in csv.DictReader(f):
+      params = sorted(
+          (name[len('Param: '):], value)
+          for name, value in row.items()
+          if name.startswith('Param: ') and value)
+      key = (row['Benchmark'], row['Mode'],
+             ','.join('%s=%s' % param for param in params))
+      result[key] = row
+  return result
+
+
+def slowdown(mode, host_score, library_score):
+  """Returns how many times slower the library is than the host JDK."""
+  if mode in THROUGHPUT_MODES:
+    return host_score / library_score if library_score else float('inf')
+  return library_score / host_score if host_score else float('inf')
+
+
+def compare(host_report, library_report, threshold, out):
+  """Prints both scores of every benchmark, returns the number of regressions."""
+  host = read_report(host_report)
+  library = read_report(library_report)
+  regressions = 0
+  header = ('Benchmark', 'Mode', 'Params', 'Host', 'Library', 'Unit',
+            'Slowdown')
+  rows = []
+  for key in sorted(set(host) | set(library)):
+    benchmark, mode, params = key
+    if key not in host or key not in library:
+      rows.append((benchmark, mode, params,
+                   host[key]['Score'] if key in host else '-',
+                   library[key]['Score'] if key in library else '-',
+                   (host.get(key) or library.get(key))['Unit'], 'missing'))
+      continue
+    host_score = float(host[key]['Score'])
+    library_score = float(library[key]['Score'])
+    ratio = slowdown(mode, host_score, library_score)
+    flag = ''
+    if ratio > threshold:
+      regressions += 1
+      flag = ' <<'
+    rows.append((benchmark, mode, params, '%.3f' % host_score,
+                 '%.3f' % library_score, host[key]['Unit'],
+                 '%.2fx%s' % (ratio, flag)))
+  widths = [max(len(str(row[i])) for row in rows + [header])
+            for i in range(len(header))]
+  for row in [header] + rows:
+    print('  '.join(str(cell).ljust(width)
+                    for cell, width in zip(row, widths)).rstrip(), file=out)
+  print('', file=out)
+  print('%d of %d benchmarks are more than %.2fx slower with the library.' %
+        (regressions, len(rows), threshold), file=out)
+  return regressions
+
+
+def parse_options(argv):
+  result = argparse.ArgumentParser()
+  result.add_argument('host_report', help='JMH CSV report of the host JDK')
+  result.add_argument(
+      'library_report', help='JMH CSV report of desugar_jdk_libs')
+  result.add_argument(
+      '--threshold',
+      type=float,
+      default=1.5,
+      help='Slowdown above which a benchmark is marked as a regression')
+  return result.parse_args(argv)
+
+
+def main(argv):
+  options = parse_options(argv)
+  compare(options.host_report, options.library_report, options.threshold,
+          sys.stdout)
+  return 0
+
+
+if __name__ == '__main__':
+  exit(main(sys.argv[1:]))
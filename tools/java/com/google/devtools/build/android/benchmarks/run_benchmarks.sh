@@ -0,0 +1,78 @@
+#!/bin/bash
+# Copyright (c) 2023 Google LLC
+#
+# This code is free software; you can redistribute it and/or modify it
+# under the terms of the GNU General Public License version 2 only, as
+# published by the Free Software Foundation.  Google designates this
+# particular file as subject to the "Classpath" exception as provided
+# by Google in the LICENSE file that accompanied this code.
+#
+# This code is distributed in the hope that it will be useful, but WITHOUT
+# ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+# FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+# version 2 for more details (a copy is included in the LICENSE file that
+# accompanied this code).
+#
+# You should have received a copy of the GNU General Public License version
+# 2 along with this work; if not, write to the Free Software Foundation,
+# Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+
+# Runs the JMH benchmarks twice, on the host JDK and with java.base patched
+# with the desugared library jar, and writes both reports and a side by side
+# comparison to the report directory. The host JDK must be a JDK 11, the
+# version the library sources are taken from.
+#
+# Usage: run_benchmarks.sh <benchmarks jar> <library jar> <compare_reports>
+#            [report directory] [JMH options]
+
+set -euo pipefail
+
+BENCHMARKS_JAR="$(realpath "$1")"
+LIBRARY_JAR="$(realpath "$2")"
+COMPARE_REPORTS="$(realpath "$3")"
+shift 3
+
+REPORT_DIR="benchmark_reports"
+if [[ $# -gt 0 && "$1" != -* ]]; then
+  REPORT_DIR="$1"
+  shift
+fi
+# Under "bazel run" relative paths are resolved against the directory bazel was
+# invoked from rather than the runfiles directory.
+if [[ "$REPORT_DIR" != /* ]]; then
+  REPORT_DIR="${BUILD_WORKING_DIRECTORY:-$PWD}/$REPORT_DIR"
+fi
+mkdir -p "$REPORT_DIR"
+
+JAVA="java"
+if [[ -n "${JAVA_HOME:-}" ]]; then
+  JAVA="$JAVA_HOME/bin/java"
+fi
+
+"$JAVA" -jar "$BENCHMARKS_JAR" \
+  -rf csv -rff "$REPORT_DIR/host.csv" \
+  "$@"
+
+# On the host JDK sun.misc belongs to jdk.unsupported, and a package can only be
+# in one module, so the library's sun.misc classes patch that module instead of
+# java.base, which then has to read it.
+PATCH_DIR="$(mktemp -d)"
+trap 'rm -rf "$PATCH_DIR"' EXIT
+cp "$LIBRARY_JAR" "$PATCH_DIR/java.base.jar"
+chmod u+w "$PATCH_DIR/java.base.jar"
+zip -qd "$PATCH_DIR/java.base.jar" 'sun/misc/*'
+unzip -q "$LIBRARY_JAR" 'sun/misc/*' -d "$PATCH_DIR/jdk.unsupported"
+PATCH_ARGS="--patch-module=java.base=$PATCH_DIR/java.base.jar"
+PATCH_ARGS+=" --patch-module=jdk.unsupported=$PATCH_DIR/jdk.unsupported"
+PATCH_ARGS+=" --add-reads=java.base=jdk.unsupported"
+PATCH_ARGS+=" --add-exports=java.base/desugar.sun.nio.fs=ALL-UNNAMED"
+
+# Only the forked benchmark JVMs run with the library; the JMH harness itself
+# stays on the host JDK.
+"$JAVA" -jar "$BENCHMARKS_JAR" \
+  -rf csv -rff "$REPORT_DIR/desugar_jdk_libs.csv" \
+  -jvmArgsAppend "$PATCH_ARGS" \
+  "$@"
+
+"$COMPARE_REPORTS" "$REPORT_DIR/host.csv" "$REPORT_DIR/desugar_jdk_libs.csv" \
+  | tee "$REPORT_DIR/comparison.txt"